@@ -1,18 +1,27 @@
 package nl.tudelft.bejeweled;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Optional;
 
 import javafx.application.Application;
 import javafx.event.EventHandler;
 import javafx.scene.Group;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import nl.tudelft.bejeweled.board.BoardFactory;
+import nl.tudelft.bejeweled.game.AutoSave;
+import nl.tudelft.bejeweled.game.BejeweledGame;
 import nl.tudelft.bejeweled.game.Game;
 import nl.tudelft.bejeweled.game.GameFactory;
+import nl.tudelft.bejeweled.game.HighScore;
 import nl.tudelft.bejeweled.gui.BejeweledGui;
 import nl.tudelft.bejeweled.logger.Logger;
+import nl.tudelft.bejeweled.metrics.GameMetrics;
+import nl.tudelft.bejeweled.sprite.ImageCache;
 import nl.tudelft.bejeweled.sprite.SpriteStore;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -29,8 +38,14 @@ public class Launcher extends Application {
     /** The Window Title. */
     private static final String WINDOW_TITLE = "Bejeweled";
 
-    /** The SpriteStore. */
-    private static final SpriteStore SPRITE_STORE = new SpriteStore();
+    /** The key that dumps the game metrics while playing. */
+    private static final KeyCode METRICS_KEY = KeyCode.F12;
+
+    /** The file the game metrics are written to, if any. */
+    private static Path metricsFile;
+
+    /** The SpriteStore of the game started by this launcher. */
+    private final SpriteStore spriteStore = new SpriteStore();
 
     /**  The current game. */
     private Game game;
@@ -40,29 +55,45 @@ public class Launcher extends Application {
 
     /**
      * The main method which starts the launcher.
-     * @param args Command line arguments which do not currently effect anything.
+     * @param args Command line arguments: "-logging enabled" turns on logging and
+     *     "-metrics file" writes the game metrics to a file on exit and whenever F12 is pressed.
      */
     public static void main(String[] args) {
-    	
-    	// Check if logging should be enabled
-    	if (args.length > 1) {
-    		if (args[0].equals("-logging")) {
+    	for (int i = 0; i + 1 < args.length; i += 2) {
+    		// Check if logging should be enabled
+    		if (args[i].equals("-logging")) {
     			
-    			if (args[1].equals("enabled") || args[1].equals("yes") || args[1].equals("1")
-    					|| args[1].equals("true")) {
+    			if (args[i + 1].equals("enabled") || args[i + 1].equals("yes")
+    					|| args[i + 1].equals("1") || args[i + 1].equals("true")) {
     				
     				Logger.enable();
     			}
+    		} else if (args[i].equals("-metrics")) {
+    			metricsFile = Paths.get(args[i + 1]);
     		}
     	}
     	
         Application.launch(Launcher.class, (java.lang.String[]) null);
         
+        HighScore.awaitPendingSaves();
+        AutoSave.awaitAll();
+        dumpMetrics();
         Logger.disable();
     }
 
+    /**
+     * Writes the game metrics to the log, and to the metrics file if one was given.
+     */
+    private static void dumpMetrics() {
+        GameMetrics.dump();
+        if (metricsFile != null) {
+        	GameMetrics.dump(metricsFile);
+        }
+    }
+
     @Override
     public void start(Stage theStage) {
+        ImageCache.preload();
         new Launcher().launchGame(theStage);
     }
 
@@ -72,7 +103,7 @@ public class Launcher extends Application {
      */
     public void launchGame(Stage theStage) {
         Group sceneNodes = new Group();
-        game = makeGame(FPS_LIMIT, WINDOW_TITLE, SPRITE_STORE);
+        game = makeGame(FPS_LIMIT, WINDOW_TITLE, spriteStore);
         game.setSceneNodes(sceneNodes);
 
         // initialise the gui and map start/stop buttons
@@ -92,7 +123,12 @@ public class Launcher extends Application {
             }
         }
         game.beginGameLoop();
-        
+
+        theStage.addEventHandler(KeyEvent.KEY_PRESSED, (event) -> {
+            if (event.getCode() == METRICS_KEY) {
+                dumpMetrics();
+            }
+        });
         theStage.setOnCloseRequest(new EventHandler<WindowEvent>() {
             public void handle(WindowEvent we) {
             	game.save();
@@ -131,12 +167,13 @@ public class Launcher extends Application {
     }
 
     /**
-     * Checks if save game is available.
-     * @return True if and only if save game files are both present.
+     * Checks if save game is available, either saved on exit or autosaved.
+     * @return True if and only if a save game file is present.
      */
     public boolean saveGameExists() {
         File saveFile = new File("save.mine");
-        return saveFile.exists();
+        File autoSaveFile = new File(BejeweledGame.AUTOSAVE_FILE);
+        return saveFile.exists() || autoSaveFile.exists();
     }
 
     /**
@@ -160,6 +197,6 @@ public class Launcher extends Application {
      * @return returns a handle to the SpriteStore
      */
     protected SpriteStore getSpriteStore() {
-        return SPRITE_STORE;
+        return spriteStore;
     }
 }
@@ -1,13 +1,11 @@
 package nl.tudelft.bejeweled.board;
 import java.io.Serializable;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
-import java.util.Set;
-import java.util.Stack;
 
 import javafx.event.EventHandler;
 import javafx.scene.Group;
@@ -17,7 +15,14 @@ import nl.tudelft.bejeweled.jewel.BasicJewel;
 import nl.tudelft.bejeweled.jewel.ExplosivePowerUp;
 import nl.tudelft.bejeweled.jewel.HyperPowerUp;
 import nl.tudelft.bejeweled.jewel.Jewel;
+import nl.tudelft.bejeweled.logger.LogLevel;
 import nl.tudelft.bejeweled.logger.Logger;
+import nl.tudelft.bejeweled.metrics.CascadeStepEvent;
+import nl.tudelft.bejeweled.metrics.GameMetrics;
+import nl.tudelft.bejeweled.metrics.GameMetrics.Counter;
+import nl.tudelft.bejeweled.metrics.SwapEvent;
+import nl.tudelft.bejeweled.sprite.JewelSprite;
+import nl.tudelft.bejeweled.sprite.JewelSpritePool;
 import nl.tudelft.bejeweled.sprite.SelectionCursor;
 import nl.tudelft.bejeweled.sprite.SpriteState;
 import nl.tudelft.bejeweled.sprite.SpriteStore;
@@ -25,42 +30,68 @@ import nl.tudelft.bejeweled.sprite.SpriteStore;
 /**
  * Created by Jeroen on 4-9-2015.
  * Class that encapsulates the board.
+ * The jewels and their sprites form the view of the board; the game logic
+ * reads and updates the headless {@link BoardModel} that mirrors them.
  */
 public class Board implements Serializable {
 	private int gridWidth;
 	private int gridHeight;
 	private int spriteWidth;
 	private int spriteHeight;
-	private static final int MINIMAL_COMBO_LENGTH = 3;
 	private static final int EXPLOSIVE_JEWEL_COMBO_LENGTH = 4;
 	private static final int HYPER_JEWEL_COMBO_LENGTH = 5;
-	public static final int NUMBER_OF_JEWEL_TYPES = 7;
+	public static final int NUMBER_OF_JEWEL_TYPES = BoardModel.NUMBER_OF_JEWEL_TYPES;
 
     private List<Jewel> selection = new ArrayList<>();
     
     private transient Jewel[][] grid;
-    private List<Integer> explosivesSave;
-    private List<Integer> hyperSave;
+    /** Headless state of the board, kept in sync with the grid of jewels. */
+    private BoardModel model;
+    private transient ComboDetector comboDetector;
+    private transient PatternMoveStrategy moveStrategy;
+    private transient MoveIndex moveIndex;
+    /** Source of the types of new jewels, shared with the session. */
+    private JewelRandom random;
+    private transient CascadeResolver cascadeResolver;
+    /** Runs cascade resolution and move search off the JavaFX thread. */
+    private transient BoardSimulation simulation;
+    /** Steps of the current cascade still to be played back. */
+    private transient Deque<CascadeStep> cascade;
+    /** Step whose jewels were removed but have not fallen yet. */
+    private transient CascadeStep pendingDrops;
+    /** Revision of the model at the last settled update, -1 when a pass is due. */
+    private transient long settledRevision = -1;
+    /** Number of times the grid imploded, used to drop results of an earlier grid. */
+    private transient long generation;
     private transient List<BoardObserver> observers;
 
     /** The JavaFX group containing all the jewels. */
     private transient Group sceneNodes;
 
-	private SpriteStore spriteStore;
+	private transient SpriteStore spriteStore;
 	private SelectionCursor selectionCursor;
 	private boolean toReverseMove = false;
 	private boolean empty = false;
 	private transient Jewel reverse1;
 	private transient Jewel reverse2;
-	private int[][] state;
 	private boolean locked = false;
 
     /**
-     * Constructor for the board class.
+     * Constructor for the board class, drawing new jewels from an arbitrary seed.
      * @param grid Two-dimensional grid holding all Jewel sprites.
      * @param sceneNodes The JavaFX group container for the Jewel Nodes.
      */
     public Board(Jewel[][] grid, Group sceneNodes) {
+        this(grid, sceneNodes, new JewelRandom());
+    }
+
+    /**
+     * Constructor for the board class.
+     * @param grid Two-dimensional grid holding all Jewel sprites.
+     * @param sceneNodes The JavaFX group container for the Jewel Nodes.
+     * @param random Source of the types of new jewels.
+     */
+    public Board(Jewel[][] grid, Group sceneNodes, JewelRandom random) {
         this.gridWidth = BejeweledGame.GRID_WIDTH;
         this.gridHeight = BejeweledGame.GRID_HEIGHT;
         this.spriteWidth = BejeweledGame.SPRITE_WIDTH;
@@ -68,8 +99,48 @@ public class Board implements Serializable {
         
         this.grid = grid;
         this.sceneNodes = sceneNodes;
+        this.random = random;
         
         this.observers = new ArrayList<>();
+        this.model = new BoardModel(gridWidth, gridHeight);
+        createLogic();
+        for (int x = 0; x < gridWidth; x++) {
+            for (int y = 0; y < gridHeight; y++) {
+                if (grid[x][y] != null) {
+                    model.set(x, y, grid[x][y].getType(), powerUpsOf(grid[x][y]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the headless logic working on the model of the board.
+     */
+    private void createLogic() {
+        comboDetector = new ComboDetector(gridWidth, gridHeight);
+        moveStrategy = new PatternMoveStrategy(model, grid);
+        moveIndex = new MoveIndex(model, moveStrategy);
+        cascadeResolver = new CascadeResolver(gridWidth, gridHeight, random);
+        simulation = new BoardSimulation();
+        cascade = new ArrayDeque<>();
+        pendingDrops = null;
+        settledRevision = -1;
+    }
+
+    /**
+     * Determines the power up flags of a jewel as stored in the model.
+     * @param jewel The jewel to inspect.
+     * @return Bitmask of {@link BoardModel#EXPLOSIVE} and {@link BoardModel#HYPER}.
+     */
+    private static int powerUpsOf(Jewel jewel) {
+        int flags = 0;
+        if (jewel.isExplosive()) {
+            flags |= BoardModel.EXPLOSIVE;
+        }
+        if (jewel.isHyper()) {
+            flags |= BoardModel.HYPER;
+        }
+        return flags;
     }
 
     /**
@@ -120,7 +191,7 @@ public class Board implements Serializable {
      * @param jewel The Jewel to be added to the current selection.
      */
     public void addSelection(Jewel jewel) {     	
-    	if (!isLocked() && !anyJewelsAnimating()) {
+    	if (!isLocked() && !simulation.isBusy() && !anyJewelsAnimating()) {
     		getSelection().add(jewel);
     		if (getSelection().size() == 1) {
     			selectionCursor = new SelectionCursor(getSelection().get(0).getSprite().getxPos(), 
@@ -129,20 +200,7 @@ public class Board implements Serializable {
     			sceneNodes.getChildren().add(0, getSelectionCursor().getNode());
     		}
     		if (getSelection().size() == 2) {    // 2 gems are selected, see if any combo's are made
-    			if (getSelection().get(0).isHyper()) {     			//Check for hypermoves
-    				hyperMove(getSelection().get(0), getSelection().get(1));
-    			} else if (getSelection().get(1).isHyper()) {     			//Check for hypermoves
-    				hyperMove(getSelection().get(1), getSelection().get(0));
-    			} else if (moveWithinDomain(getSelection().get(0), getSelection().get(1))) {
-    				Logger.logInfo("Swapping jewels " + getSelection().get(0).toString()
-    						+ " and " + getSelection().get(1).toString());
-    				swapJewel(getSelection().get(0), getSelection().get(1));
-    				int comboCount = checkBoardCombos();
-    				Logger.logInfo("Combo Jewels on board: " + comboCount);
-    				if (comboCount == 0) {
-    					setToReverse(getSelection().get(0), getSelection().get(1));
-    				}
-    			}
+    			swapSelection(getSelection().get(0), getSelection().get(1));
     			sceneNodes.getChildren().remove(getSelectionCursor().getNode());
     			selectionCursor = null;
     			getSelection().clear();
@@ -152,17 +210,184 @@ public class Board implements Serializable {
     
     
 
+	/**
+	 * Makes the move of two selected jewels, recording it as a swap event.
+	 * @param jewel1 The first selected Jewel.
+	 * @param jewel2 The second selected Jewel.
+	 */
+	private void swapSelection(Jewel jewel1, Jewel jewel2) {
+		SwapEvent event = new SwapEvent();
+		event.begin();
+		int x1 = jewel1.getBoardX();
+		int y1 = jewel1.getBoardY();
+		boolean hyper = jewel1.isHyper() || jewel2.isHyper();
+		if (jewel1.isHyper()) {     			//Check for hypermoves
+			hyperMove(jewel1, jewel2);
+		} else if (jewel2.isHyper()) {     			//Check for hypermoves
+			hyperMove(jewel2, jewel1);
+		} else if (moveWithinDomain(jewel1, jewel2)) {
+			trySwap(jewel1, jewel2);
+		} else {
+			return;
+		}
+		event.commit(x1, y1, jewel2.getBoardX(), jewel2.getBoardY(), hyper);
+	}
+
 	private void hyperMove(Jewel hyperjewel, Jewel jewel2) {
 		hyperjewel.implode(sceneNodes);
+		retire(hyperjewel);
+		model.clear(hyperjewel.getBoardX(), hyperjewel.getBoardY());
 	    for (int x = 0; x < gridWidth; x++) {
             for (int y = 0; y < gridHeight; y++) {
-            	if (grid[x][y].getType() == jewel2.getType()) {
+            	if (model.getType(x, y) == jewel2.getType()) {
 	                grid[x][y].hyperConsume(sceneNodes);
+	                retire(grid[x][y]);
+	                model.clear(x, y);
             	}
             }
         }
 	}
 
+	/**
+     * Swaps two jewels and resolves the resulting cascade on the simulation
+     * thread. The board accepts no input until the result is applied.
+     * @param jewel1 The first Jewel.
+     * @param jewel2 The second Jewel.
+     */
+    private void trySwap(Jewel jewel1, Jewel jewel2) {
+        Logger.logInfo("Swapping jewels {} and {}", jewel1, jewel2);
+        swapJewel(jewel1, jewel2);
+        GameMetrics.count(Counter.SWAPS, 1);
+        BoardModel snapshot = new BoardModel(model);
+        long submitted = generation;
+        simulation.submit(() -> cascadeResolver.resolve(snapshot),
+                (steps) -> startCascade(jewel1, jewel2, steps, submitted));
+    }
+
+    /**
+     * Starts playing back the cascade of a swap, or sets up the swap to be
+     * undone if it does not make a combo. Steps resolved for a grid that
+     * imploded in the meantime are dropped.
+     * @param jewel1 The first Jewel of the swap.
+     * @param jewel2 The second Jewel of the swap.
+     * @param steps The resolved steps of the cascade.
+     * @param submitted The generation of the grid the swap was made on.
+     */
+    private void startCascade(Jewel jewel1, Jewel jewel2, List<CascadeStep> steps,
+            long submitted) {
+        if (submitted != generation) {
+            Logger.logDebug("Dropping cascade of an imploded grid");
+            return;
+        }
+        if (Logger.isEnabled(LogLevel.INFO)) {
+            Logger.logInfo("Combo Jewels on board: {}", CascadeResolver.countRemoved(steps));
+        }
+        if (steps.isEmpty()) {
+            setToReverse(jewel1, jewel2);
+        } else {
+            GameMetrics.count(Counter.CASCADES, 1);
+            GameMetrics.count(Counter.CASCADE_STEPS, steps.size());
+            GameMetrics.count(Counter.COMBO_JEWELS, CascadeResolver.countRemoved(steps));
+            cascade.addAll(steps);
+            pendingDrops = cascade.poll();
+            playRemoval(pendingDrops);
+        }
+    }
+
+    /**
+     * Plays back the removal part of a cascade step: explosions, scored
+     * jewels and the spawned power up.
+     * @param step The step to play.
+     */
+    private void playRemoval(CascadeStep step) {
+        CascadeStepEvent event = new CascadeStepEvent();
+        event.begin();
+        if (step.getBlast() != 0) {
+            jewelsAt(step.getRemoved() | step.getBlast()).forEach((eJewel) -> {
+                eJewel.explode(sceneNodes);
+                retire(eJewel);
+                model.clear(eJewel.getBoardX(), eJewel.getBoardY());
+            });
+        }
+        removeJewels(jewelsAt(step.getRemoved()));
+        spawnPowerUp(step);
+        event.commit(CascadeStepEvent.REMOVAL, Long.bitCount(step.getRemoved()),
+                Long.bitCount(step.getBlast() & ~step.getRemoved()), 0, cascade.size());
+    }
+
+    /**
+     * Adds the power up spawned by a cascade step, if any.
+     * @param step The step being played.
+     */
+    private void spawnPowerUp(CascadeStep step) {
+        int cell = step.getSpawnCell();
+        if (cell == CascadeStep.NO_SPAWN) {
+            return;
+        }
+        if (step.getSpawnPowerUps() == BoardModel.HYPER) {
+            addHyperJewel(step.getSpawnType(), cell / gridHeight, cell % gridHeight);
+        } else {
+            addExplosiveJewel(step.getSpawnType(), cell / gridHeight, cell % gridHeight);
+        }
+    }
+
+    /**
+     * Plays back the falling part of a cascade step: jewels move down and
+     * the precomputed jewels fill the top of each column.
+     * @param step The step to play.
+     */
+    private void playDrops(CascadeStep step) {
+        CascadeStepEvent event = new CascadeStepEvent();
+        event.begin();
+        int total = 0;
+        for (int i = 0; i < gridWidth; i++) {
+            for (int j = gridHeight - 1; j >= 0; j--) {
+                int drop = step.getDrop(model.index(i, j));
+                if (drop > 0) {
+                    grid[i][j + drop] = grid[i][j];
+                    model.move(i, j, i, j + drop);
+                    moveJewelDown(grid[i][j], drop);
+                }
+            }
+            int refills = 0;
+            while (refills < gridHeight && step.getRefill(model.index(i, refills)) != 0) {
+                refills++;
+            }
+            for (int k = 0; k < refills; k++) {
+                addJewel(step.getRefill(model.index(i, k)), i, k, -refills * spriteHeight);
+            }
+            total += refills;
+        }
+        GameMetrics.count(Counter.REFILLS, total);
+        event.commit(CascadeStepEvent.DROPS, 0, 0, total, cascade.size());
+    }
+
+    /**
+     * Plays back the next part of the current cascade.
+     */
+    private void playCascade() {
+        if (pendingDrops == null) {
+            pendingDrops = cascade.poll();
+            playRemoval(pendingDrops);
+        }
+        playDrops(pendingDrops);
+        pendingDrops = null;
+    }
+
+    /**
+     * Collects the jewels in a set of cells.
+     * @param cells Mask of cell indices in the model.
+     * @return The jewels in those cells, in cell order.
+     */
+    private List<Jewel> jewelsAt(long cells) {
+        List<Jewel> jewels = new ArrayList<>(Long.bitCount(cells));
+        for (long remaining = cells; remaining != 0; remaining &= remaining - 1) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            jewels.add(grid[index / gridHeight][index % gridHeight]);
+        }
+        return jewels;
+    }
+
 	/**
      * Set up two jewels to be swapped, intended to undo an invalid move.
      * @param jewel1 The first Jewel.
@@ -214,6 +439,7 @@ public class Board implements Serializable {
         //Swap the jewels in the board
         grid[j1.getBoardX()][j1.getBoardY()] = j2;
         grid[j2.getBoardX()][j2.getBoardY()] = j1;
+        model.swap(j1.getBoardX(), j1.getBoardY(), j2.getBoardX(), j2.getBoardY());
         
         //TODO create a moveTo function for Jewel that in turn moves it sprite
         //Swap the positions of the sprite images
@@ -235,88 +461,17 @@ public class Board implements Serializable {
         j2.setBoardY(previousJ1J);
     }
 
-    /**
-     * Checks the board for combos in columns.
-     * @param comboList List to store the combo in
-     */
-    private void checkVerticalCombo(List<Jewel> comboList) {
-        // list to hold current selection of combo
-        Stack<Jewel> current = new Stack<>();
-        int matches;
-        int type;
-
-        // first check columns for combos
-        for (int col = 0; col < grid.length; col++) {
-            matches = 0;
-            type = 0;
-            for (int i = 0; i < grid[0].length; i++) {
-                if (grid[col][i].getType() == type && type != 0
-                        && grid[col][i].getSprite().getState() != SpriteState.TO_BE_REMOVED) {
-                    matches++;
-                    current.push(grid[col][i]);
-                } //subtract 1 because arrays start at 0
-                if (grid[col][i].getType() != type || i == grid[0].length - 1) {
-                    if (matches >= MINIMAL_COMBO_LENGTH) {
-                        while (!current.empty()) {
-                            comboList.add(current.pop());
-                        }
-                    }
-                    current.clear();
-                    type = grid[col][i].getType();
-                    current.push(grid[col][i]);
-                    matches = 1;
-                }
-            }
-        }
-    }
-    
-    /** Checks the board for combos in rows.
-     * @param comboList List to store the combo in
-     */
-    private void checkHorizontalCombo(List<Jewel> comboList) {
-        // list to hold current selection of combo
-        Stack<Jewel> current = new Stack<>();
-        int matches;
-        int type;
-        
-        for (int row = 0; row < grid[0].length; row++) {
-            matches = 0;
-            type = 0;
-            for (int i = 0; i < grid.length; i++) {
-                if (grid[i][row].getType() == type && type != 0
-                        && grid[i][row].getSprite().getState() != SpriteState.TO_BE_REMOVED) {
-                    matches++;
-                    current.push(grid[i][row]);
-                }
-                if (grid[i][row].getType() != type || i == grid[0].length - 1) {
-                    if (matches >= MINIMAL_COMBO_LENGTH) {
-                        while (!current.empty()) {
-                            comboList.add(current.pop());
-                        }
-                    }
-                    current.clear();
-                    type = grid[i][row].getType();
-                    current.push(grid[i][row]);
-                    matches = 1;
-                }
-            }
-        }
-    }
-    
     /**
      * Check the board for any combo Jewels.
      * @return The number of Jewels removed from the game.
      */
     public int checkBoardCombos() {
-        List<Jewel> comboList = new ArrayList<>();
-        checkVerticalCombo(comboList);
-        checkHorizontalCombo(comboList);
-        
-        // remove duplicates by putting the list in set
-        Set<Jewel> comboSet = new HashSet<>();
-        comboSet.addAll(comboList);
-        comboList.clear();
-        comboList.addAll(comboSet);
+        long combos = comboDetector.findCombos(model);
+        if (combos == 0) {
+            return 0;
+        }
+        List<Jewel> comboList = jewelsAt(combos);
+        GameMetrics.count(Counter.COMBO_JEWELS, comboList.size());
         checkPowerUps(comboList);
         return comboList.size();
     }
@@ -333,7 +488,11 @@ public class Board implements Serializable {
               Jewel jewel = jewelIterator.next();
               if (jewel.isExplosive()) {
             	  List <Jewel> toExplode = explosiveSurrounding(jewel, comboList);
-            	  toExplode.forEach((eJewel) -> eJewel.explode(sceneNodes));
+            	  toExplode.forEach((eJewel) -> {
+            		  eJewel.explode(sceneNodes);
+            		  retire(eJewel);
+            		  model.clear(eJewel.getBoardX(), eJewel.getBoardY());
+            	  });
               }
           }
           removeJewels(comboList);
@@ -363,11 +522,23 @@ public class Board implements Serializable {
             Jewel jewel = jewelIterator.next();
             // remove the JavaFX nodes from the scene group and animate an implosion
             jewel.implode(sceneNodes);
-            // remove the event filter
-            jewel.getNodes().forEach((node) -> node.setOnMouseClicked(null));
+            // remove the event filter and the sprites from the spriteStore
+            retire(jewel);
+            model.clear(jewel.getBoardX(), jewel.getBoardY());
             updateScore();
-            // TODO Make sure the Jewels are also removed from the spriteStore.
-            // grid[jewel.getBoardX()][jewel.getBoardY()] = null;
+        }
+    }
+
+    /**
+     * Takes a jewel that is being removed out of play. Its sprites stop
+     * reacting to clicks and are removed from the spriteStore, so they can
+     * be reused once their animation has finished.
+     * @param jewel The jewel being removed.
+     */
+    private void retire(Jewel jewel) {
+        for (JewelSprite sprite : jewel.getSprites()) {
+            sprite.setClickHandler(null);
+            spriteStore.addSpritesToBeRemoved(sprite);
         }
     }
     
@@ -407,24 +578,11 @@ public class Board implements Serializable {
     
     /**
      * Function that checks if there are any moves possible.
-     * 
-     * <p>Iterates through all gems and looks for pairs or two or 
-     * constructions like "xox" where another x could fill in.
-     * For each case a different function is called which checks for
-     * a valid move.</p>
-     *
-     * @return returns two jewels in a list to swap if move is possible
-     */
-    private List<Jewel> getValidMovePair(BoardMoveStrategy strategy) {
-		return strategy.getValidMovePair();
-    }
-    
-    /**
-     * Function that checks if there are any moves possible.
+     * A board with combos still to be removed is not out of moves.
      * @return true if no moves possible
      */
     public boolean outOfMoves() {
-        if (!getValidMovePair(new BruteForceStrategy(grid)).isEmpty()) {
+        if (moveIndex.hasValidMove() || comboDetector.findCombos(model) != 0) {
             return false;
         }
     	for (BoardObserver observer : observers) {
@@ -438,10 +596,11 @@ public class Board implements Serializable {
      */
     private void addJewel(Jewel jewel, int i, int j) {
     	 grid[i][j] = jewel;
+    	 model.set(i, j, jewel.getType(), powerUpsOf(jewel));
          spriteStore.addSprites(jewel.getSprites());
          sceneNodes.getChildren().addAll(0, jewel.getNodes());
          setSpriteStore(spriteStore);
-         grid[i][j].getNodes().forEach((node) -> node.addEventFilter(MouseEvent.MOUSE_CLICKED,
+         grid[i][j].getSprites().forEach((sprite) -> sprite.setClickHandler(
              new EventHandler<MouseEvent>() {
                  public void handle(MouseEvent event) {
                      addSelection(jewel);
@@ -452,16 +611,45 @@ public class Board implements Serializable {
          );
     }
     
+    /**
+     * Creates a plain jewel for a grid position, reusing a sprite of the
+     * game's sprite pool when there is one.
+     * @param type The type (color) of the jewel.
+     * @param i Grid column
+     * @param j Grid row
+     * @return The new jewel.
+     */
+    private Jewel newJewel(int type, int i, int j) {
+        JewelSpritePool pool = null;
+        if (spriteStore != null) {
+            pool = spriteStore.getPool();
+        }
+        return new BasicJewel(type, i, j, i * spriteWidth, j * spriteHeight, pool);
+    }
+
     /**
      * This function adds a jewel of a random type to the grid at the specified position.
      * @param i Grid column
      * @param j Grid row
      */
     protected void addRandomJewel(int i, int j) {
-        Random rand = new Random();
-        Jewel jewel = new BasicJewel(rand.nextInt(NUMBER_OF_JEWEL_TYPES) + 1, i, j,
-        		i * spriteWidth, j * spriteHeight);
-        addJewel(jewel, i, j);
+        addJewel(newJewel(random.nextType(), i, j), i, j);
+    }
+    
+    /**
+     * This function adds a jewel of the given type to the grid, which falls into
+     * its spot from the given vertical offset.
+     * @param type The type (color) of the jewel.
+     * @param i Grid column
+     * @param j Grid row
+     * @param translateY Y offset in pixels
+     */
+    private void addJewel(int type, int i, int j, int translateY) {
+        addJewel(newJewel(type, i, j), i, j);
+        if (translateY != 0) {
+            grid[i][j].getSprite().setState(SpriteState.ANIMATION_ACTIVE);
+            grid[i][j].getNodes().forEach((node) -> node.setTranslateY(translateY));
+        }
     }
     
     /**
@@ -472,8 +660,7 @@ public class Board implements Serializable {
      * @param j Grid row
      */
     protected void addExplosiveJewel(int type, int i, int j) {
-        Jewel jewel = new ExplosivePowerUp(new BasicJewel(type, i, j,
-        		i * spriteWidth, j * spriteHeight));
+        Jewel jewel = new ExplosivePowerUp(newJewel(type, i, j));
         addJewel(jewel, i, j);
         grid[i][j].getSprites().forEach((sprite)-> sprite.fadeIn(sceneNodes)); 
      }
@@ -486,8 +673,7 @@ public class Board implements Serializable {
      * @param j Grid row
      */
     protected void addHyperJewel(int type, int i, int j) {
-        Jewel jewel = new HyperPowerUp(new BasicJewel(type, i, j,
-        		i * spriteWidth, j * spriteHeight));
+        Jewel jewel = new HyperPowerUp(newJewel(type, i, j));
         addJewel(jewel, i, j);
         grid[i][j].getSprites().forEach((sprite)-> sprite.fadeIn(sceneNodes));  
       }
@@ -519,12 +705,12 @@ public class Board implements Serializable {
     	for (int i = 0; i < gridWidth; i++) {	
     		int emptySpots = 0;
     		for (int j = gridHeight - 1; j >= 0; j--) {
-    			if (grid[i][j] == null 
-    				|| grid[i][j].getSprite().getState() == SpriteState.TO_BE_REMOVED) {
+    			if (model.isEmpty(i, j)) {
     				emptySpots++;
     			} else {
     				if (emptySpots > 0) {
         				grid[i][j + emptySpots] = grid[i][j];
+        				model.move(i, j, i, j + emptySpots);
     					moveJewelDown(grid[i][j], emptySpots);
     				}
     			}
@@ -532,6 +718,7 @@ public class Board implements Serializable {
     		for (int k = 0; k < emptySpots; k++) {
     			addRandomJewel(i, k, 0, -(emptySpots) * spriteHeight);
     		}
+    		GameMetrics.count(Counter.REFILLS, emptySpots);
     	}
     }
 
@@ -552,17 +739,35 @@ public class Board implements Serializable {
 	public void setSpriteStore(SpriteStore spriteStore) {
 		this.spriteStore = spriteStore;
 	}
+
+	/**
+	 * Setter function for the simulation running the logic of the board.
+	 * @param simulation the simulation to use
+	 */
+	public void setSimulation(BoardSimulation simulation) {
+		this.simulation = simulation;
+	}
 	
     /**
 	 * Update the board; check for combos, and fill empty spots .
-	 * 	 */
+	 * Results of the simulation thread are applied first. Does nothing while
+	 * the simulation is busy or the board has not changed since the last
+	 * settled update.
+	 */
 	public void update() {
+		simulation.drain();
+		if (simulation.isBusy() || isSettled()) {
+			return;
+		}
 		if (!anyJewelsAnimating()) {
+			settledRevision = model.getRevision();
 			if (empty) {
 				spawnJewels();
 				empty = false;
 			} else if (toReverseMove) {
 				tryToReverse();
+			} else if (pendingDrops != null || !cascade.isEmpty()) {
+				playCascade();
 			} else {
 				checkBoardCombos();
 				updateJewelPositions();
@@ -571,13 +776,32 @@ public class Board implements Serializable {
 		}
 	}
 	
+	/**
+	 * Checks whether the board has nothing left to do until it changes.
+	 * @return true if nothing changed since the last settled update
+	 */
+	private boolean isSettled() {
+		return model.getRevision() == settledRevision && !empty && !toReverseMove
+				&& cascade.isEmpty() && pendingDrops == null;
+	}
+
+	/**
+	 * Checks whether the board is at rest: no swap, cascade or new level is in
+	 * progress, so the model holds a complete board that only changes on input.
+	 * @return true if the board is at rest
+	 */
+	public boolean isAtRest() {
+		return !simulation.isBusy() && isSettled();
+	}
+
 	/**
 	 * Spawn new jewels at the start of a new level.
 	 */
 	private void spawnJewels() {
+		BoardModel types = new BoardGenerator(gridWidth, gridHeight, random).generate();
 	    for (int i = 0; i < gridWidth; i++) {
             for (int j = 0; j < gridHeight; j++) {
-            	 addRandomJewel(i, j);
+            	 addJewel(types.getType(i, j), i, j, 0);
             	 grid[i][j].fadeIn(sceneNodes); 
             }
         }
@@ -608,37 +832,50 @@ public class Board implements Serializable {
 	}
 
     /**
-     * Setter method for the state grid.
-     * @param state The state grid.
-     */
-    public void setState(int[][] state) {
-        this.state = state;
-    }
-    
-    /**
-     * Fade out the entire grid.
+     * Fade out the entire grid. Any swap or cascade still in progress belongs
+     * to the old grid and is abandoned.
      */
     public void implodeGrid() {
+        generation++;
+        cascade.clear();
+        pendingDrops = null;
+        toReverseMove = false;
+        reverse1 = null;
+        reverse2 = null;
+        removeJewelSelection();
         for (int x = 0; x < grid.length; x++) {
             for (int y = 0; y < grid[x].length; y++) {
             	if (grid[x][y] != null) {
 	                grid[x][y].implode(sceneNodes);
+	                retire(grid[x][y]);
             	}
+            	model.clear(x, y);
             }
         }
         empty = true;
     }
 
 	/**
-	 * Calculates and visualizes a hint for a next move.
+	 * Calculates a hint for a next move on the simulation thread, which is
+	 * visualized when the board has not changed in the meantime.
 	 */
 	public void showHint() {
-		
-		List<Jewel> swap = getValidMovePair(new BruteForceStrategy(grid));
-		
-		if (!swap.isEmpty()) {
-            addSelection(swap.get(1));
-        }
+		long revision = model.getRevision();
+		BoardModel snapshot = new BoardModel(model);
+		simulation.submit(() -> moveStrategy.findFirstMove(snapshot),
+				(move) -> showHint(move, revision));
+	}
+
+	/**
+	 * Visualizes a hint by selecting a jewel of the move.
+	 * @param move The packed move, or -1 if there is none.
+	 * @param revision Revision of the model the move was searched on.
+	 */
+	private void showHint(int move, long revision) {
+		if (move >= 0 && revision == model.getRevision()) {
+			int cell = PatternMoveStrategy.secondCell(move);
+			addSelection(grid[cell / gridHeight][cell % gridHeight]);
+		}
 	}
 
     /**
@@ -661,94 +898,39 @@ public class Board implements Serializable {
 	 * @return processed grid
 	 */
 	public int[][] convertGrid() {
-		int[][] mGrid = new int[gridWidth][gridHeight]; 
-		for (int i = 0; i < gridWidth; i++) {
-			for (int j = 0; j < gridHeight; j++) {
-				mGrid[i][j] = grid[i][j].getType();  
-			}	
-		}
-		return mGrid;
-		
+		return model.toTypes();
 	}
 	
-    /**
-     * Make grid from saved state.
-     * @param sceneNodes the sceneNodes used for the display of the jewels.
-     */
-	public void makeGrid(Group sceneNodes) {
-        this.observers = new ArrayList<>();
-		grid = new Jewel[gridWidth][gridHeight];
-		this.sceneNodes = sceneNodes;
-		for (int i = 0; i < gridWidth; i++) {
-            for (int j = 0; j < gridHeight; j++) {
-               Jewel jewel = new BasicJewel(state[i][j], i, j, i * spriteWidth, j * spriteHeight); 
-                grid[i][j] = null;
-                grid[i][j] = jewel;
-                spriteStore.addSprite(jewel.getSprite());
-                sceneNodes.getChildren().add(0, jewel.getSprite().getNode());
-                setSpriteStore(spriteStore);
-                grid[i][j].getSprite().getNode().addEventFilter(MouseEvent.MOUSE_CLICKED,
-                        new EventHandler<MouseEvent>() {
-                            public void handle(MouseEvent event) {
-                                addSelection(jewel);
-                                event.consume();
-                            }
-                        }
-                );
-            }
-        }
+	/**
+	 * Getter function for the move strategy searching this board.
+	 * @return the strategy enumerating the legal moves on the board
+	 */
+	public PatternMoveStrategy getMoveStrategy() {
+		return moveStrategy;
 	}
-
+	
 	/**
-	 * Test whether the board is locked for modification.
-	 * @return whether the board is locked for modification.
+	 * Getter function for the index of legal moves on this board.
+	 * @return the index tracking the legal moves as the board changes
 	 */
-	public boolean isLocked() {
-		return locked;
+	public MoveIndex getMoveIndex() {
+		return moveIndex;
 	}
 	
 	/**
-	 * Incorporate power jewels in the save file.
+	 * Getter function for the headless model of the board.
+	 * @return the model mirroring the current grid of jewels
 	 */
-	public void saveExplosivesAndHypers() {
-		explosivesSave = new ArrayList<Integer>();
-		hyperSave = new ArrayList<Integer>();
-		for (Jewel[] column : grid) {
-			for (Jewel jewel : column) {
-				if (jewel.isExplosive()) {
-					explosivesSave.add(jewel.getType());
-					explosivesSave.add(jewel.getBoardX());
-					explosivesSave.add(jewel.getBoardY());
-				}
-				if (jewel.isHyper()) {
-					hyperSave.add(jewel.getType());
-					hyperSave.add(jewel.getBoardX());
-					hyperSave.add(jewel.getBoardY());
-				}
-			}
-		}
+	public BoardModel getModel() {
+		return model;
 	}
 	
 	/**
-	 * Restore power jewels after loading.
-	 * Note: this (incorrectly) adds to the current score, 
-	 * but these changes are irrelevant as the score is loaded after this.
+	 * Test whether the board is locked for modification.
+	 * @return whether the board is locked for modification.
 	 */
-	public void restoreExplosivesAndHypers() {
-		for (int i = 0; i < explosivesSave.size();) {
-			int type = explosivesSave.get(i++);
-			int x = explosivesSave.get(i++);
-			int y = explosivesSave.get(i++);
-			grid[x][y].implode(sceneNodes);
-			addExplosiveJewel(type, x, y);
-		}
-		for (int i = 0; i < hyperSave.size();) {
-			int type = hyperSave.get(i++);
-			int x = hyperSave.get(i++);
-			int y = hyperSave.get(i++);
-			grid[x][y].implode(sceneNodes);
-			addHyperJewel(type, x, y);
-		}
+	public boolean isLocked() {
+		return locked;
 	}
 	
 	/**
@@ -3,6 +3,8 @@ import java.io.Serializable;
 
 import nl.tudelft.bejeweled.game.BejeweledGame;
 import nl.tudelft.bejeweled.jewel.BasicJewel;
+import nl.tudelft.bejeweled.jewel.ExplosivePowerUp;
+import nl.tudelft.bejeweled.jewel.HyperPowerUp;
 import nl.tudelft.bejeweled.jewel.Jewel;
 import nl.tudelft.bejeweled.sprite.SpriteStore;
 import javafx.event.EventHandler;
@@ -14,8 +16,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
-import java.util.Random;
-
 /**
  * Created by Jeroen on 4-9-2015.
  * Factory class for creating the board class
@@ -29,7 +29,12 @@ public class BoardFactory implements Serializable {
     /**
      * The sprite store providing the sprites for the game.
      */
-    private final SpriteStore spriteStore;
+    private final transient SpriteStore spriteStore;
+
+    /**
+     * The random source for the jewels of the boards.
+     */
+    private final JewelRandom random;
 
     /**
      * Creates the boadfactory that will create the board that
@@ -37,7 +42,18 @@ public class BoardFactory implements Serializable {
      * @param spriteStore The sprite store providing the sprites.
      */
     public BoardFactory(SpriteStore spriteStore) {
+        this(spriteStore, new JewelRandom());
+    }
+
+    /**
+     * Creates the boadfactory that will create the board that
+     * will load the jewels, drawing them from the given random source.
+     * @param spriteStore The sprite store providing the sprites.
+     * @param random The random source for the jewels.
+     */
+    public BoardFactory(SpriteStore spriteStore, JewelRandom random) {
         this.spriteStore = spriteStore;
+        this.random = random;
     }
 
     /**
@@ -60,7 +76,8 @@ public class BoardFactory implements Serializable {
                 String[] parts = line.split("|");  
                 for (int j = 0; j < gridHeight; j++) {
                     int amr = Integer.parseInt(parts[j]);
-                    Jewel jewel = new BasicJewel(amr, k, j, k * spriteWidth, j * spriteHeight);
+                    Jewel jewel = new BasicJewel(amr, k, j, k * spriteWidth, j * spriteHeight,
+                            spriteStore.getPool());
                     grid[k][j] = jewel;
                     // add to actors in play (sprite objects)
                     spriteStore.addSprite(jewel.getSprite());
@@ -75,7 +92,7 @@ public class BoardFactory implements Serializable {
        		 spriteWidth,  spriteHeight);
     }
     /**
-     * Generates a new board.
+     * Generates a new board without combos that has at least one legal move.
      * @param sceneNodes The group container for the Jewel nodes.
      * @return A new Board.
      */
@@ -85,14 +102,14 @@ public class BoardFactory implements Serializable {
         this.spriteWidth = BejeweledGame.SPRITE_WIDTH;
         this.spriteHeight = BejeweledGame.SPRITE_WIDTH;
         
-        Random rand = new Random();
         Jewel[][] grid = new Jewel[gridWidth][gridHeight];
+        BoardModel types = new BoardGenerator(gridWidth, gridHeight, random).generate();
 
         // create the boards jewels
         for (int i = 0; i < gridWidth; i++) {
             for (int j = 0; j < gridHeight; j++) {
-               Jewel jewel = new BasicJewel(rand.nextInt(Board.NUMBER_OF_JEWEL_TYPES) + 1, i, j,
-            		   i * spriteWidth, j * spriteHeight);
+               Jewel jewel = new BasicJewel(types.getType(i, j), i, j,
+            		   i * spriteWidth, j * spriteHeight, spriteStore.getPool());
                 grid[i][j] = jewel;
 
                 // add to actors in play (sprite objects)
@@ -107,6 +124,38 @@ public class BoardFactory implements Serializable {
         		 spriteWidth,  spriteHeight);
     }
 
+    /**
+     * Recreates a saved board, including its power ups.
+     * @param model The types and power ups of the saved board.
+     * @param sceneNodes The group container for the Jewel nodes.
+     * @return A new Board.
+     */
+    public Board restoreBoard(BoardModel model, Group sceneNodes) {
+        this.gridWidth = model.getWidth();
+        this.gridHeight = model.getHeight();
+        this.spriteWidth = BejeweledGame.SPRITE_WIDTH;
+        this.spriteHeight = BejeweledGame.SPRITE_WIDTH;
+
+        Jewel[][] grid = new Jewel[gridWidth][gridHeight];
+        for (int i = 0; i < gridWidth; i++) {
+            for (int j = 0; j < gridHeight; j++) {
+                Jewel jewel = new BasicJewel(model.getType(i, j), i, j,
+                        i * spriteWidth, j * spriteHeight, spriteStore.getPool());
+                if (model.isExplosive(i, j)) {
+                    jewel = new ExplosivePowerUp(jewel);
+                } else if (model.isHyper(i, j)) {
+                    jewel = new HyperPowerUp(jewel);
+                }
+                grid[i][j] = jewel;
+                spriteStore.addSprites(jewel.getSprites());
+                sceneNodes.getChildren().addAll(0, jewel.getNodes());
+            }
+        }
+
+        return addEventHandler(grid, sceneNodes, gridWidth, gridHeight,
+                spriteWidth, spriteHeight);
+    }
+
     /**
      * Event Handler.
      * @param grid The grid containing jewels
@@ -120,21 +169,21 @@ public class BoardFactory implements Serializable {
      * */
 	public Board addEventHandler(Jewel[][] grid, Group sceneNodes, int gridWidth, int gridHeight,
     		int spriteWidth, int spriteHeight) {
-		Board board = new Board(grid, sceneNodes);
+		Board board = new Board(grid, sceneNodes, random);
         board.setSpriteStore(spriteStore);
 
         // add event handlers.
         for (int i = 0; i < gridWidth; i++) {
             for (int j = 0; j < gridHeight; j++) {
                 Jewel jewel = grid[i][j];
-                grid[i][j].getSprite().getNode().addEventFilter(MouseEvent.MOUSE_CLICKED,
+                grid[i][j].getSprites().forEach((sprite) -> sprite.setClickHandler(
                         new EventHandler<MouseEvent>() {
                           public void handle(MouseEvent event) {
                             board.addSelection(jewel);
                             event.consume();
                         }
                      }
-                );
+                ));
             }
         }
 
@@ -0,0 +1,79 @@
+package nl.tudelft.bejeweled.board;
+
+/**
+ * Generates the jewel types of new boards.
+ *
+ * <p>Boards are filled column by column. Each cell avoids the type that
+ * already fills the two cells to its left or the two cells above it, so a
+ * generated board never contains a combo. Boards without a legal move are
+ * thrown away and generated again.</p>
+ */
+public class BoardGenerator {
+
+    private final int width;
+    private final int height;
+    private final JewelRandom random;
+
+    /**
+     * Constructor for the board generator.
+     * @param width Width of the board in squares.
+     * @param height Height of the board in squares.
+     * @param random Source of the jewel types.
+     */
+    public BoardGenerator(int width, int height, JewelRandom random) {
+        this.width = width;
+        this.height = height;
+        this.random = random;
+    }
+
+    /**
+     * Generates a board without combos that has at least one legal move.
+     * @return A model holding the types of the new board.
+     */
+    public BoardModel generate() {
+        BoardModel model = new BoardModel(width, height);
+        PatternMoveStrategy strategy = new PatternMoveStrategy(model, null);
+        do {
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    model.set(x, y, pickType(model, x, y), 0);
+                }
+            }
+        } while (!strategy.hasValidMove());
+        return model;
+    }
+
+    /**
+     * Draws a type for a cell that does not complete a line with the cells
+     * to its left or above it.
+     * @param model The board generated so far.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @return The jewel type.
+     */
+    private int pickType(BoardModel model, int x, int y) {
+        int left = BoardModel.EMPTY;
+        if (x >= 2 && model.getType(x - 1, y) == model.getType(x - 2, y)) {
+            left = model.getType(x - 1, y);
+        }
+        int above = BoardModel.EMPTY;
+        if (y >= 2 && model.getType(x, y - 1) == model.getType(x, y - 2)) {
+            above = model.getType(x, y - 1);
+        }
+        int choices = BoardModel.NUMBER_OF_JEWEL_TYPES;
+        if (left != BoardModel.EMPTY) {
+            choices--;
+        }
+        if (above != BoardModel.EMPTY && above != left) {
+            choices--;
+        }
+        int type = 0;
+        for (int pick = random.nextInt(choices); pick >= 0; pick--) {
+            type++;
+            while (type == left || type == above) {
+                type++;
+            }
+        }
+        return type;
+    }
+}
@@ -0,0 +1,264 @@
+package nl.tudelft.bejeweled.board;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Headless model of the board state.
+ *
+ * <p>Holds the jewel type of every cell in a flat byte array together with a
+ * bitmask of power ups per cell. The model has no knowledge of sprites or
+ * JavaFX, so combo detection, cascades and move search can run on it without
+ * a toolkit. Cells are stored column by column, matching the
+ * <code>grid[x][y]</code> layout used by {@link Board}.</p>
+ *
+ * <p>Next to the flat arrays the model keeps one 64-bit bitboard per jewel
+ * type, in which bit {@link #index(int, int)} is set when that cell holds a
+ * jewel of the type. Boards are therefore limited to 64 cells.</p>
+ */
+public class BoardModel implements Serializable {
+
+    /** Type value of a cell without a jewel. */
+    public static final int EMPTY = 0;
+
+    /** Number of different jewel types (colours) in the game. */
+    public static final int NUMBER_OF_JEWEL_TYPES = 7;
+
+    /** Power up flag for an explosive jewel. */
+    public static final int EXPLOSIVE = 1;
+
+    /** Power up flag for a hyper jewel. */
+    public static final int HYPER = 2;
+
+    private static final long serialVersionUID = 2958463150197283301L;
+
+    private final int width;
+    private final int height;
+    private final byte[] types;
+    private final byte[] powerUps;
+    private final long[] bitBoards;
+
+    /** Cells written since the last call to {@link #takeChanges()}. */
+    private long changes;
+
+    /** Number of writes to the model, used to detect that it changed. */
+    private long revision;
+
+    /**
+     * Creates an empty model.
+     * @param width Width of the board in squares.
+     * @param height Height of the board in squares.
+     */
+    public BoardModel(int width, int height) {
+        if (width * height > Long.SIZE) {
+            throw new IllegalArgumentException("A board can hold at most "
+                    + Long.SIZE + " cells");
+        }
+        this.width = width;
+        this.height = height;
+        this.types = new byte[width * height];
+        this.powerUps = new byte[width * height];
+        this.bitBoards = new long[NUMBER_OF_JEWEL_TYPES + 1];
+    }
+
+    /**
+     * Copy constructor.
+     * @param other The model to copy.
+     */
+    public BoardModel(BoardModel other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.types = Arrays.copyOf(other.types, other.types.length);
+        this.powerUps = Arrays.copyOf(other.powerUps, other.powerUps.length);
+        this.bitBoards = Arrays.copyOf(other.bitBoards, other.bitBoards.length);
+        this.changes = other.changes;
+        this.revision = other.revision;
+    }
+
+    /**
+     * Creates a model from a grid of jewel types, without power ups.
+     * @param typeGrid Grid of types, indexed as <code>typeGrid[x][y]</code>.
+     * @return A new model holding the given types.
+     */
+    public static BoardModel fromTypes(int[][] typeGrid) {
+        BoardModel model = new BoardModel(typeGrid.length, typeGrid[0].length);
+        for (int x = 0; x < model.width; x++) {
+            for (int y = 0; y < model.height; y++) {
+                model.set(x, y, typeGrid[x][y], 0);
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Getter method for the width.
+     * @return Width of the board in squares.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Getter method for the height.
+     * @return Height of the board in squares.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Converts a position to the index of the cell in the flat arrays.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @return The cell index.
+     */
+    public int index(int x, int y) {
+        return x * height + y;
+    }
+
+    /**
+     * Getter method for the type of a cell.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @return The jewel type, or {@link #EMPTY}.
+     */
+    public int getType(int x, int y) {
+        return types[index(x, y)];
+    }
+
+    /**
+     * Getter method for the power up flags of a cell.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @return Bitmask of {@link #EXPLOSIVE} and {@link #HYPER}.
+     */
+    public int getPowerUps(int x, int y) {
+        return powerUps[index(x, y)];
+    }
+
+    /**
+     * Test whether a cell holds an explosive jewel.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @return true if the jewel is explosive.
+     */
+    public boolean isExplosive(int x, int y) {
+        return (powerUps[index(x, y)] & EXPLOSIVE) != 0;
+    }
+
+    /**
+     * Test whether a cell holds a hyper jewel.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @return true if the jewel is hyper.
+     */
+    public boolean isHyper(int x, int y) {
+        return (powerUps[index(x, y)] & HYPER) != 0;
+    }
+
+    /**
+     * Test whether a cell holds no jewel.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @return true if the cell is empty.
+     */
+    public boolean isEmpty(int x, int y) {
+        return types[index(x, y)] == EMPTY;
+    }
+
+    /**
+     * Getter method for the bitboard of a jewel type.
+     * @param type The jewel type, between 1 and {@link #NUMBER_OF_JEWEL_TYPES}.
+     * @return Mask with a bit set for every cell holding a jewel of the type.
+     */
+    public long getBitBoard(int type) {
+        return bitBoards[type];
+    }
+
+    /**
+     * Places a jewel in a cell.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @param type The jewel type.
+     * @param flags Bitmask of power ups of the jewel.
+     */
+    public void set(int x, int y, int type, int flags) {
+        int index = index(x, y);
+        long bit = 1L << index;
+        bitBoards[types[index]] &= ~bit;
+        types[index] = (byte) type;
+        powerUps[index] = (byte) flags;
+        if (type != EMPTY) {
+            bitBoards[type] |= bit;
+        }
+        changes |= bit;
+        revision++;
+    }
+
+    /**
+     * Getter method for the revision of the model, which increases on every write.
+     * @return The number of writes made to the model.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Returns the cells written since the previous call and resets the mask.
+     * @return Mask with a bit set for every changed cell.
+     */
+    public long takeChanges() {
+        long changed = changes;
+        changes = 0;
+        return changed;
+    }
+
+    /**
+     * Removes the jewel from a cell.
+     * @param x Grid column.
+     * @param y Grid row.
+     */
+    public void clear(int x, int y) {
+        set(x, y, EMPTY, 0);
+    }
+
+    /**
+     * Swaps the contents of two cells.
+     * @param x1 Column of the first cell.
+     * @param y1 Row of the first cell.
+     * @param x2 Column of the second cell.
+     * @param y2 Row of the second cell.
+     */
+    public void swap(int x1, int y1, int x2, int y2) {
+        int type = getType(x1, y1);
+        int flags = getPowerUps(x1, y1);
+        set(x1, y1, getType(x2, y2), getPowerUps(x2, y2));
+        set(x2, y2, type, flags);
+    }
+
+    /**
+     * Moves the jewel of one cell to another, leaving the source empty.
+     * @param fromX Column of the source cell.
+     * @param fromY Row of the source cell.
+     * @param toX Column of the target cell.
+     * @param toY Row of the target cell.
+     */
+    public void move(int fromX, int fromY, int toX, int toY) {
+        set(toX, toY, getType(fromX, fromY), getPowerUps(fromX, fromY));
+        clear(fromX, fromY);
+    }
+
+    /**
+     * Converts the types in the model to a two dimensional grid.
+     * @return Grid of types, indexed as <code>grid[x][y]</code>.
+     */
+    public int[][] toTypes() {
+        int[][] typeGrid = new int[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                typeGrid[x][y] = getType(x, y);
+            }
+        }
+        return typeGrid;
+    }
+}
@@ -0,0 +1,94 @@
+package nl.tudelft.bejeweled.board;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import nl.tudelft.bejeweled.logger.Logger;
+
+/**
+ * Runs the headless logic of a board off the JavaFX Application Thread.
+ *
+ * <p>Tasks work on a private copy of the {@link BoardModel}, so they never
+ * touch state the JavaFX thread is using. Their results are immutable values
+ * such as lists of {@link CascadeStep}s, which are handed back through a
+ * lock-free queue and applied to the jewels and sprites by {@link #drain()}
+ * on the thread that owns them. Tasks of all boards share a single daemon
+ * worker thread, so they run one at a time and in submission order.</p>
+ */
+public class BoardSimulation {
+
+    /** The worker shared by all boards. */
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor((task) -> {
+        Thread thread = new Thread(task, "board-simulation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Executor executor;
+
+    /** Results waiting to be applied by the owning thread. */
+    private final Queue<Runnable> results = new ConcurrentLinkedQueue<>();
+
+    /** Number of tasks whose results have not been drained yet, owner thread only. */
+    private int pending;
+
+    /**
+     * Constructor running tasks on the shared worker thread.
+     */
+    public BoardSimulation() {
+        this(WORKER);
+    }
+
+    /**
+     * Constructor running tasks on a given executor.
+     * @param executor The executor running the tasks.
+     */
+    public BoardSimulation(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Submits a task whose result is applied on the next {@link #drain()}.
+     * A task that fails is logged and its result is dropped.
+     * @param task The computation to run on the worker.
+     * @param onResult Applies the result, called on the draining thread.
+     * @param <T> The type of the result.
+     */
+    public <T> void submit(Supplier<T> task, Consumer<T> onResult) {
+        pending++;
+        executor.execute(() -> {
+            try {
+                T result = task.get();
+                results.add(() -> onResult.accept(result));
+            } catch (RuntimeException e) {
+                Logger.logError("Board simulation task failed: {}", e);
+                results.add(() -> { });
+            }
+        });
+    }
+
+    /**
+     * Applies the results of all finished tasks, in the order they finished.
+     */
+    public void drain() {
+        Runnable result = results.poll();
+        while (result != null) {
+            pending--;
+            result.run();
+            result = results.poll();
+        }
+    }
+
+    /**
+     * Checks whether submitted tasks have results that were not applied yet.
+     * @return true while the board has to wait for the simulation.
+     */
+    public boolean isBusy() {
+        return pending > 0;
+    }
+}
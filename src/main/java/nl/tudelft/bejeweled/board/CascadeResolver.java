@@ -0,0 +1,175 @@
+package nl.tudelft.bejeweled.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Computes the full chain reaction of a move on a {@link BoardModel} in one call.
+ *
+ * <p>Starting from a board with combos, the resolver repeatedly removes all
+ * combos, explodes explosive jewels, spawns power ups, lets jewels fall and
+ * refills the board, until no combos remain. Each round is returned as a
+ * {@link CascadeStep}, which the board plays back at the pace of its
+ * animations. The model passed in is never modified.</p>
+ */
+public class CascadeResolver {
+
+    private static final int EXPLOSIVE_JEWEL_COMBO_LENGTH = 4;
+    private static final int HYPER_JEWEL_COMBO_LENGTH = 5;
+
+    private final int width;
+    private final int height;
+    private final ComboDetector comboDetector;
+    private final Random random;
+
+    /**
+     * Constructor for the cascade resolver.
+     * @param width Width of the board in squares.
+     * @param height Height of the board in squares.
+     * @param random Source of the types of the jewels refilling the board.
+     */
+    public CascadeResolver(int width, int height, Random random) {
+        this.width = width;
+        this.height = height;
+        this.comboDetector = new ComboDetector(width, height);
+        this.random = random;
+    }
+
+    /**
+     * Resolves the cascade of a board that may contain combos.
+     * @param board The board to resolve, which is not modified.
+     * @return The steps of the cascade, empty if the board has no combos.
+     */
+    public List<CascadeStep> resolve(BoardModel board) {
+        BoardModel work = new BoardModel(board);
+        List<CascadeStep> steps = new ArrayList<>();
+        long combos = comboDetector.findCombos(work);
+        while (combos != 0) {
+            steps.add(resolveStep(work, combos));
+            combos = comboDetector.findCombos(work);
+        }
+        return steps;
+    }
+
+    /**
+     * Resolves the cascade caused by swapping two cells.
+     * @param board The board before the swap, which is not modified.
+     * @param x1 Column of the first cell.
+     * @param y1 Row of the first cell.
+     * @param x2 Column of the second cell.
+     * @param y2 Row of the second cell.
+     * @return The steps of the cascade, empty if the swap is not a valid move.
+     */
+    public List<CascadeStep> resolveSwap(BoardModel board, int x1, int y1, int x2, int y2) {
+        BoardModel swapped = new BoardModel(board);
+        swapped.swap(x1, y1, x2, y2);
+        return resolve(swapped);
+    }
+
+    /**
+     * Sums the number of scored jewels of a cascade.
+     * @param steps The steps of the cascade.
+     * @return The number of jewels removed in combos.
+     */
+    public static int countRemoved(List<CascadeStep> steps) {
+        int count = 0;
+        for (CascadeStep step : steps) {
+            count += step.getRemovedCount();
+        }
+        return count;
+    }
+
+    /**
+     * Computes and applies a single step of the cascade.
+     * @param work The board to update.
+     * @param combos Mask of the cells in combos.
+     * @return The step that was applied.
+     */
+    private CascadeStep resolveStep(BoardModel work, long combos) {
+        long blast = 0;
+        for (long cells = combos; cells != 0; cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            if (work.isExplosive(cell / height, cell % height)) {
+                blast |= surrounding(cell);
+            }
+        }
+        blast &= ~combos;
+        int[] spawn = spawnFor(work, combos);
+        for (long cells = combos | blast; cells != 0; cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            work.clear(cell / height, cell % height);
+        }
+        if (spawn[0] != CascadeStep.NO_SPAWN) {
+            work.set(spawn[0] / height, spawn[0] % height, spawn[1], spawn[2]);
+        }
+        byte[] drops = new byte[width * height];
+        byte[] refills = new byte[width * height];
+        for (int x = 0; x < width; x++) {
+            dropColumn(work, x, drops, refills);
+        }
+        return new CascadeStep(combos, blast, spawn, drops, refills);
+    }
+
+    /**
+     * Determines the power up spawned by a set of combos. Like the board, a
+     * combo of four spawns an explosive jewel and five or more a hyper jewel,
+     * in the first combo cell.
+     * @param work The board before removal.
+     * @param combos Mask of the cells in combos.
+     * @return The spawn cell, type and power up flags.
+     */
+    private int[] spawnFor(BoardModel work, long combos) {
+        int count = Long.bitCount(combos);
+        int cell = Long.numberOfTrailingZeros(combos);
+        int type = work.getType(cell / height, cell % height);
+        if (count >= HYPER_JEWEL_COMBO_LENGTH) {
+            return new int[] {cell, type, BoardModel.HYPER};
+        }
+        if (count == EXPLOSIVE_JEWEL_COMBO_LENGTH) {
+            return new int[] {cell, type, BoardModel.EXPLOSIVE};
+        }
+        return new int[] {CascadeStep.NO_SPAWN, BoardModel.EMPTY, 0};
+    }
+
+    /**
+     * Computes the cells around a cell hit by an explosion.
+     * @param cell The exploding cell.
+     * @return Mask of the cell and its up to eight neighbours.
+     */
+    private long surrounding(int cell) {
+        int x = cell / height;
+        int y = cell % height;
+        long mask = 0;
+        for (int i = Math.max(0, x - 1); i <= Math.min(width - 1, x + 1); i++) {
+            for (int j = Math.max(0, y - 1); j <= Math.min(height - 1, y + 1); j++) {
+                mask |= 1L << (i * height + j);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Lets the jewels of a column fall and refills the column from the top.
+     * @param work The board to update.
+     * @param x The column.
+     * @param drops Receives the fall distance per source cell.
+     * @param refills Receives the type of each new jewel.
+     */
+    private void dropColumn(BoardModel work, int x, byte[] drops, byte[] refills) {
+        int emptySpots = 0;
+        for (int y = height - 1; y >= 0; y--) {
+            if (work.isEmpty(x, y)) {
+                emptySpots++;
+            } else if (emptySpots > 0) {
+                drops[work.index(x, y)] = (byte) emptySpots;
+                work.move(x, y, x, y + emptySpots);
+            }
+        }
+        for (int y = 0; y < emptySpots; y++) {
+            int type = random.nextInt(BoardModel.NUMBER_OF_JEWEL_TYPES) + 1;
+            refills[work.index(x, y)] = (byte) type;
+            work.set(x, y, type, 0);
+        }
+    }
+}
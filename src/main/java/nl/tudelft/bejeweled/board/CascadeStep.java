@@ -0,0 +1,135 @@
+package nl.tudelft.bejeweled.board;
+
+import java.util.Arrays;
+
+/**
+ * One step of a cascade, as computed by {@link CascadeResolver}.
+ *
+ * <p>A step removes the jewels in combos, clears the cells hit by exploding
+ * jewels, optionally spawns a power up jewel, lets the remaining jewels fall
+ * and refills the empty cells at the top of each column. Cells are addressed
+ * by their index in the {@link BoardModel}. Steps are immutable.</p>
+ */
+public final class CascadeStep {
+
+    /** Cell index used when the step does not spawn a power up. */
+    public static final int NO_SPAWN = -1;
+
+    private final long removed;
+    private final long blast;
+    private final int spawnCell;
+    private final int spawnType;
+    private final int spawnPowerUps;
+    private final byte[] drops;
+    private final byte[] refills;
+
+    /**
+     * Constructor for a cascade step.
+     * @param removed Mask of the cells in combos, which are scored.
+     * @param blast Mask of the other cells cleared by explosions.
+     * @param spawn Packed spawn of the power up jewel, see {@link CascadeResolver}.
+     * @param drops Distance each cell's jewel falls, indexed by the cell it falls from.
+     * @param refills Type of the new jewel per cell, or {@link BoardModel#EMPTY}.
+     */
+    CascadeStep(long removed, long blast, int[] spawn, byte[] drops, byte[] refills) {
+        this.removed = removed;
+        this.blast = blast;
+        this.spawnCell = spawn[0];
+        this.spawnType = spawn[1];
+        this.spawnPowerUps = spawn[2];
+        this.drops = Arrays.copyOf(drops, drops.length);
+        this.refills = Arrays.copyOf(refills, refills.length);
+    }
+
+    /**
+     * Getter for the cells removed as part of a combo.
+     * @return Mask of the combo cells.
+     */
+    public long getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Getter for the number of jewels that score in this step.
+     * @return The number of combo cells.
+     */
+    public int getRemovedCount() {
+        return Long.bitCount(removed);
+    }
+
+    /**
+     * Getter for the cells cleared by explosions that were not part of a combo.
+     * @return Mask of the exploded cells.
+     */
+    public long getBlast() {
+        return blast;
+    }
+
+    /**
+     * Getter for the cell in which a power up jewel is spawned.
+     * @return The cell index, or {@link #NO_SPAWN}.
+     */
+    public int getSpawnCell() {
+        return spawnCell;
+    }
+
+    /**
+     * Getter for the type of the spawned power up jewel.
+     * @return The jewel type.
+     */
+    public int getSpawnType() {
+        return spawnType;
+    }
+
+    /**
+     * Getter for the power up flags of the spawned jewel.
+     * @return {@link BoardModel#EXPLOSIVE} or {@link BoardModel#HYPER}.
+     */
+    public int getSpawnPowerUps() {
+        return spawnPowerUps;
+    }
+
+    /**
+     * Getter for the distance the jewel in a cell falls.
+     * @param cell The cell the jewel falls from.
+     * @return The number of squares it falls.
+     */
+    public int getDrop(int cell) {
+        return drops[cell];
+    }
+
+    /**
+     * Getter for the type of the jewel refilling a cell.
+     * @param cell The cell to refill.
+     * @return The new jewel type, or {@link BoardModel#EMPTY} if the cell is not refilled.
+     */
+    public int getRefill(int cell) {
+        return refills[cell];
+    }
+
+    /**
+     * Applies this step to a model.
+     * @param model The model to update, which must hold the state the step was computed on.
+     */
+    public void applyTo(BoardModel model) {
+        int height = model.getHeight();
+        for (long cells = removed | blast; cells != 0; cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            model.clear(cell / height, cell % height);
+        }
+        if (spawnCell != NO_SPAWN) {
+            model.set(spawnCell / height, spawnCell % height, spawnType, spawnPowerUps);
+        }
+        for (int x = 0; x < model.getWidth(); x++) {
+            for (int y = height - 1; y >= 0; y--) {
+                int drop = drops[model.index(x, y)];
+                if (drop > 0) {
+                    model.move(x, y, x, y + drop);
+                }
+            }
+            for (int y = 0; y < height && refills[model.index(x, y)] != BoardModel.EMPTY; y++) {
+                model.set(x, y, refills[model.index(x, y)], 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package nl.tudelft.bejeweled.board;
+
+/**
+ * Finds combos on a {@link BoardModel} using its per type bitboards.
+ *
+ * <p>A run of three starts at every bit that is also set one and two cells
+ * further along the row or column, so a single shift-and-AND per direction
+ * finds all run starts of a type at once. Runs longer than three simply
+ * consist of overlapping starts. Detection does not allocate.</p>
+ */
+public class ComboDetector {
+
+    private final int height;
+
+    /** Cells where a vertical run of three fits within the column. */
+    private final long verticalStarts;
+
+    /**
+     * Constructor for the combo detector.
+     * @param width Width of the board in squares.
+     * @param height Height of the board in squares.
+     */
+    public ComboDetector(int width, int height) {
+        this.height = height;
+        long starts = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height - 2; y++) {
+                starts |= 1L << (x * height + y);
+            }
+        }
+        this.verticalStarts = starts;
+    }
+
+    /**
+     * Finds all jewels on the board that are part of a combo.
+     * @param model The board to search.
+     * @return Mask with a bit set for every cell that is part of a combo.
+     */
+    public long findCombos(BoardModel model) {
+        long combos = 0;
+        for (int type = 1; type <= BoardModel.NUMBER_OF_JEWEL_TYPES; type++) {
+            combos |= findCombos(model.getBitBoard(type));
+        }
+        return combos;
+    }
+
+    /**
+     * Finds all cells of a single bitboard that are part of a run of three or more.
+     * @param cells Bitboard of the cells holding one jewel type.
+     * @return Mask of the cells that are part of a combo.
+     */
+    public long findCombos(long cells) {
+        long vertical = cells & (cells >>> 1) & (cells >>> 2) & verticalStarts;
+        long horizontal = cells & (cells >>> height) & (cells >>> (2 * height));
+        return vertical | (vertical << 1) | (vertical << 2)
+                | horizontal | (horizontal << height) | (horizontal << (2 * height));
+    }
+}
@@ -0,0 +1,134 @@
+package nl.tudelft.bejeweled.board;
+
+import java.util.Random;
+
+/**
+ * Seeded random source for the jewels of a session.
+ *
+ * <p>Uses the xorshift64* generator, so drawing a jewel type neither
+ * allocates nor synchronizes. The same seed always produces the same
+ * sequence of jewels, which makes games reproducible, and {@link #split()}
+ * derives independent streams for boards simulated side by side. The seed
+ * and state are stored in save games, so a resumed game continues the same
+ * sequence.</p>
+ */
+public class JewelRandom extends Random {
+
+    private static final long serialVersionUID = -4103786227310530213L;
+
+    private static final int SHIFT_A = 12;
+    private static final int SHIFT_B = 25;
+    private static final int SHIFT_C = 27;
+    private static final long MULTIPLIER = 0x2545F4914F6CDD1DL;
+
+    private static final int MIX_SHIFT_A = 30;
+    private static final int MIX_SHIFT_B = 27;
+    private static final int MIX_SHIFT_C = 31;
+    private static final long MIX_A = 0xBF58476D1CE4E5B9L;
+    private static final long MIX_B = 0x94D049BB133111EBL;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long seed;
+    private long state;
+
+    /**
+     * Creates a random source with an arbitrary seed.
+     */
+    public JewelRandom() {
+        this(newSeed());
+    }
+
+    /**
+     * Creates a random source with a fixed seed.
+     * @param seed The seed of the sequence.
+     */
+    public JewelRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Creates a random source continuing a sequence where it was left off.
+     * @param seed The seed the sequence was started from.
+     * @param state The state of the sequence, as returned by {@link #getState()}.
+     */
+    public JewelRandom(long seed, long state) {
+        super(seed);
+        if (state == 0) {
+            throw new IllegalArgumentException("The state of a sequence is never 0");
+        }
+        this.state = state;
+    }
+
+    /**
+     * Picks an arbitrary seed for a new sequence.
+     * @return The seed.
+     */
+    public static long newSeed() {
+        return System.nanoTime() ^ System.currentTimeMillis() * GOLDEN_GAMMA;
+    }
+
+    /**
+     * Restarts the sequence from a seed.
+     * @param seed The seed of the sequence.
+     */
+    @Override
+    public synchronized void setSeed(long seed) {
+        this.seed = seed;
+        this.state = mix(seed + GOLDEN_GAMMA);
+        if (state == 0) {
+            state = GOLDEN_GAMMA;
+        }
+    }
+
+    /**
+     * Getter for the seed this sequence was started from.
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter for the position in the sequence.
+     * @return The state from which the next value is drawn.
+     */
+    public long getState() {
+        return state;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state ^= state >>> SHIFT_A;
+        state ^= state << SHIFT_B;
+        state ^= state >>> SHIFT_C;
+        return (int) ((state * MULTIPLIER) >>> (Long.SIZE - bits));
+    }
+
+    /**
+     * Draws a random jewel type.
+     * @return A type between 1 and {@link BoardModel#NUMBER_OF_JEWEL_TYPES}.
+     */
+    public int nextType() {
+        return nextInt(BoardModel.NUMBER_OF_JEWEL_TYPES) + 1;
+    }
+
+    /**
+     * Derives an independent random source from this one.
+     * @return A new source seeded from the next value of this sequence.
+     */
+    public JewelRandom split() {
+        return new JewelRandom(mix(nextLong()));
+    }
+
+    /**
+     * Scrambles the bits of a value, using the SplitMix64 finalizer.
+     * @param value The value to scramble.
+     * @return The scrambled value.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> MIX_SHIFT_A)) * MIX_A;
+        z = (z ^ (z >>> MIX_SHIFT_B)) * MIX_B;
+        return z ^ (z >>> MIX_SHIFT_C);
+    }
+}
@@ -0,0 +1,133 @@
+package nl.tudelft.bejeweled.board;
+
+/**
+ * Live index of the legal moves on a {@link BoardModel}.
+ *
+ * <p>The index keeps one bitmask of legal swaps with the right neighbour and
+ * one with the lower neighbour, each bit standing for the left or upper cell
+ * of the swap. Whether a swap is legal only depends on cells at most two
+ * squares along a row or column from either of its cells, so on every
+ * {@link #update()} only the swaps near the cells written since the previous
+ * update are evaluated again.</p>
+ */
+public class MoveIndex {
+
+    private final BoardModel model;
+    private final PatternMoveStrategy strategy;
+    private final int height;
+
+    /** All cells of the board. */
+    private final long allCells;
+
+    /** Cells that have a neighbour to the right. */
+    private final long hasRight;
+
+    /** Cells that have a neighbour below. */
+    private final long hasBelow;
+
+    /** Cells with at least two more cells below them in the column. */
+    private final long hasTwoBelow;
+
+    private long rightMoves;
+    private long downMoves;
+
+    /**
+     * Constructor for the move index.
+     * Cells already set in the model are picked up by the first update.
+     * @param model The board model to track.
+     * @param strategy The strategy used to check single swaps on the model.
+     */
+    public MoveIndex(BoardModel model, PatternMoveStrategy strategy) {
+        this.model = model;
+        this.strategy = strategy;
+        this.height = model.getHeight();
+        long all = 0;
+        long right = 0;
+        long below = 0;
+        long twoBelow = 0;
+        for (int x = 0; x < model.getWidth(); x++) {
+            for (int y = 0; y < height; y++) {
+                long bit = 1L << model.index(x, y);
+                all |= bit;
+                if (x < model.getWidth() - 1) {
+                    right |= bit;
+                }
+                if (y < height - 1) {
+                    below |= bit;
+                }
+                if (y < height - 2) {
+                    twoBelow |= bit;
+                }
+            }
+        }
+        this.allCells = all;
+        this.hasRight = right;
+        this.hasBelow = below;
+        this.hasTwoBelow = twoBelow;
+    }
+
+    /**
+     * Brings the index up to date with the cells changed in the model.
+     */
+    public void update() {
+        long changed = model.takeChanges();
+        if (changed == 0) {
+            return;
+        }
+        long region = near(changed);
+        rightMoves = evaluate(rightMoves, (region | (region >>> height)) & hasRight, height);
+        downMoves = evaluate(downMoves, (region | (region >>> 1)) & hasBelow, 1);
+    }
+
+    /**
+     * Widens a set of cells by two squares along their rows and columns.
+     * @param cells The cells to widen.
+     * @return The cells and every cell within two squares in a row or column.
+     */
+    private long near(long cells) {
+        long up = (cells >>> 1) & hasBelow;
+        long upTwice = (cells >>> 2) & hasTwoBelow;
+        long down = (cells & hasBelow) << 1;
+        long downTwice = (cells & hasTwoBelow) << 2;
+        long sideways = (cells << height) | (cells >>> height)
+                | (cells << (2 * height)) | (cells >>> (2 * height));
+        return (cells | up | upTwice | down | downTwice | sideways) & allCells;
+    }
+
+    /**
+     * Evaluates the swaps starting at a set of cells again.
+     * @param moves The current mask of legal swaps in one direction.
+     * @param cells The cells whose swap needs to be evaluated.
+     * @param step Index distance from a cell to its swap partner.
+     * @return The updated mask of legal swaps.
+     */
+    private long evaluate(long moves, long cells, int step) {
+        long result = moves & ~cells;
+        long remaining = cells;
+        while (remaining != 0) {
+            int cell = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if (strategy.isValidSwap(cell, cell + step)) {
+                result |= 1L << cell;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Getter for the number of legal moves, as of the last update.
+     * @return The number of legal swaps on the board.
+     */
+    public int getMoveCount() {
+        return Long.bitCount(rightMoves) + Long.bitCount(downMoves);
+    }
+
+    /**
+     * Checks whether there is a legal move, updating the index first.
+     * @return true if a move is possible.
+     */
+    public boolean hasValidMove() {
+        update();
+        return rightMoves != 0 || downMoves != 0;
+    }
+}
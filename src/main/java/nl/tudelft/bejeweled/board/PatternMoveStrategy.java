@@ -0,0 +1,301 @@
+package nl.tudelft.bejeweled.board;
+
+import nl.tudelft.bejeweled.jewel.Jewel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Move strategy that enumerates every legal swap on a {@link BoardModel}.
+ *
+ * <p>For every cell and every side a jewel can be swapped in from, the
+ * strategy precomputes the pairs of cells that complete a line of three
+ * through that cell. A swap is legal when the bitboard of the incoming type
+ * covers one of those pairs. Moves are packed into a reused int array as
+ * <code>(firstCell &lt;&lt; 8) | secondCell</code>, so enumerating does not
+ * allocate. The pair masks only depend on the size of the board, so
+ * {@link #findFirstMove(BoardModel)} can search copies of the model with the
+ * same tables, from any thread.</p>
+ */
+public class PatternMoveStrategy implements BoardMoveStrategy {
+
+    private static final int CELL_BITS = 8;
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+
+    private static final int FROM_LEFT = 0;
+    private static final int FROM_RIGHT = 1;
+    private static final int FROM_ABOVE = 2;
+    private static final int FROM_BELOW = 3;
+    private static final int DIRECTIONS = 4;
+
+    private final BoardModel model;
+    private final Jewel[][] grid;
+    private final int width;
+    private final int height;
+
+    /** Pair masks per target cell and incoming direction. */
+    private final long[][] patterns;
+
+    /** Buffer holding the packed moves of the last enumeration. */
+    private final int[] moves;
+
+    /**
+     * Constructor for PatternMoveStrategy.
+     * @param model The board model to search.
+     * @param grid The grid of Jewels matching the model, used to report move pairs.
+     */
+    public PatternMoveStrategy(BoardModel model, Jewel[][] grid) {
+        this.model = model;
+        this.grid = grid;
+        this.width = model.getWidth();
+        this.height = model.getHeight();
+        this.patterns = new long[width * height * DIRECTIONS][];
+        this.moves = new int[2 * width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                buildPatterns(x, y);
+            }
+        }
+    }
+
+    /**
+     * Precomputes the pair masks of all lines through a cell, for each side a
+     * jewel can enter the cell from. Pairs containing the entry cell are left
+     * out, because that cell receives the other jewel of the swap.
+     * @param x Grid column of the target cell.
+     * @param y Grid row of the target cell.
+     */
+    private void buildPatterns(int x, int y) {
+        int cell = model.index(x, y);
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            List<Long> pairs = new ArrayList<>();
+            for (int offset = -2; offset <= 0; offset++) {
+                addPair(pairs, direction, x, y, offset, 1, 0);
+                addPair(pairs, direction, x, y, offset, 0, 1);
+            }
+            long[] masks = new long[pairs.size()];
+            for (int i = 0; i < masks.length; i++) {
+                masks[i] = pairs.get(i);
+            }
+            patterns[cell * DIRECTIONS + direction] = masks;
+        }
+    }
+
+    /**
+     * Adds the two cells of a line of three, other than the target, as a pair mask.
+     * @param pairs List to add the mask to.
+     * @param direction The side the jewel enters the target cell from.
+     * @param x Column of the target cell.
+     * @param y Row of the target cell.
+     * @param offset Position of the first cell of the line relative to the target.
+     * @param dx Horizontal step along the line.
+     * @param dy Vertical step along the line.
+     */
+    private void addPair(List<Long> pairs, int direction, int x, int y, int offset,
+            int dx, int dy) {
+        long mask = 0;
+        for (int i = offset; i <= offset + 2; i++) {
+            int cx = x + i * dx;
+            int cy = y + i * dy;
+            if (cx < 0 || cy < 0 || cx >= width || cy >= height
+                    || isEntryCell(direction, cx - x, cy - y)) {
+                return;
+            }
+            if (i != 0) {
+                mask |= 1L << model.index(cx, cy);
+            }
+        }
+        pairs.add(mask);
+    }
+
+    /**
+     * Checks whether a relative position is the cell a jewel enters from.
+     * @param direction The side the jewel enters from.
+     * @param dx Horizontal offset from the target cell.
+     * @param dy Vertical offset from the target cell.
+     * @return true if the offset points at the entry cell.
+     */
+    private static boolean isEntryCell(int direction, int dx, int dy) {
+        switch (direction) {
+            case FROM_LEFT:
+                return dx == -1 && dy == 0;
+            case FROM_RIGHT:
+                return dx == 1 && dy == 0;
+            case FROM_ABOVE:
+                return dx == 0 && dy == -1;
+            default:
+                return dx == 0 && dy == 1;
+        }
+    }
+
+    /**
+     * Checks whether a jewel of a type moved into a cell completes a line.
+     * @param board The model to search.
+     * @param type The type of the moving jewel.
+     * @param cell The index of the target cell.
+     * @param direction The side the jewel enters from.
+     * @return true if the jewel would form a combo.
+     */
+    private boolean completesLine(BoardModel board, int type, int cell, int direction) {
+        if (type == BoardModel.EMPTY) {
+            return false;
+        }
+        long cells = board.getBitBoard(type);
+        for (long pair : patterns[cell * DIRECTIONS + direction]) {
+            if ((cells & pair) == pair) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether swapping two neighbouring cells is a legal move.
+     * Swaps involving a hyper jewel are always legal.
+     * @param first Index of the left or upper cell.
+     * @param second Index of the right or lower cell.
+     * @return true if the swap removes jewels.
+     */
+    public boolean isValidSwap(int first, int second) {
+        return isValidSwap(model, first, second);
+    }
+
+    /**
+     * Checks whether swapping two neighbouring cells of a model is a legal move.
+     * @param board The model to search.
+     * @param first Index of the left or upper cell.
+     * @param second Index of the right or lower cell.
+     * @return true if the swap removes jewels.
+     */
+    private boolean isValidSwap(BoardModel board, int first, int second) {
+        int x1 = first / height;
+        int y1 = first % height;
+        int x2 = second / height;
+        int y2 = second % height;
+        int type1 = board.getType(x1, y1);
+        int type2 = board.getType(x2, y2);
+        if (type1 == BoardModel.EMPTY || type2 == BoardModel.EMPTY) {
+            return false;
+        }
+        if (board.isHyper(x1, y1) || board.isHyper(x2, y2)) {
+            return true;
+        }
+        if (x1 == x2) {
+            return completesLine(board, type1, second, FROM_ABOVE)
+                    || completesLine(board, type2, first, FROM_BELOW);
+        }
+        return completesLine(board, type1, second, FROM_LEFT)
+                || completesLine(board, type2, first, FROM_RIGHT);
+    }
+
+    /**
+     * Enumerates all legal swaps on the board.
+     * @return The number of moves found, stored at the start of {@link #getMoves()}.
+     */
+    public int findAllMoves() {
+        int count = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int cell = model.index(x, y);
+                if (x < width - 1 && isValidSwap(cell, cell + height)) {
+                    moves[count++] = pack(cell, cell + height);
+                }
+                if (y < height - 1 && isValidSwap(cell, cell + 1)) {
+                    moves[count++] = pack(cell, cell + 1);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Getter for the packed moves of the last call to {@link #findAllMoves()}.
+     * The array is reused between calls.
+     * @return The buffer of packed moves.
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Checks whether there is at least one legal swap on the board.
+     * @return true if a move is possible.
+     */
+    public boolean hasValidMove() {
+        return findFirstMove() >= 0;
+    }
+
+    /**
+     * Finds the first legal swap on the board.
+     * @return The packed move, or -1 if there is none.
+     */
+    public int findFirstMove() {
+        return findFirstMove(model);
+    }
+
+    /**
+     * Finds the first legal swap on another model of the same size, such as a
+     * snapshot of the board. Only reads the precomputed tables, so it is safe to
+     * call from another thread.
+     * @param board The model to search.
+     * @return The packed move, or -1 if there is none.
+     */
+    public int findFirstMove(BoardModel board) {
+        if (board.getWidth() != width || board.getHeight() != height) {
+            throw new IllegalArgumentException("The model has a different size");
+        }
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int cell = board.index(x, y);
+                if (x < width - 1 && isValidSwap(board, cell, cell + height)) {
+                    return pack(cell, cell + height);
+                }
+                if (y < height - 1 && isValidSwap(board, cell, cell + 1)) {
+                    return pack(cell, cell + 1);
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public List<Jewel> getValidMovePair() {
+        int move = findFirstMove();
+        if (move < 0) {
+            return new ArrayList<Jewel>();
+        }
+        int first = firstCell(move);
+        int second = secondCell(move);
+        return Arrays.asList(grid[first / height][first % height],
+                grid[second / height][second % height]);
+    }
+
+    /**
+     * Packs a swap of two cells into a single int.
+     * @param first Index of the first cell.
+     * @param second Index of the second cell.
+     * @return The packed move.
+     */
+    public static int pack(int first, int second) {
+        return (first << CELL_BITS) | second;
+    }
+
+    /**
+     * Unpacks the first cell of a move.
+     * @param move The packed move.
+     * @return Index of the first cell.
+     */
+    public static int firstCell(int move) {
+        return move >>> CELL_BITS;
+    }
+
+    /**
+     * Unpacks the second cell of a move.
+     * @param move The packed move.
+     * @return Index of the second cell.
+     */
+    public static int secondCell(int move) {
+        return move & CELL_MASK;
+    }
+}
@@ -0,0 +1,208 @@
+package nl.tudelft.bejeweled.game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import nl.tudelft.bejeweled.logger.Logger;
+
+/**
+ * Saves a running session at a fixed interval, so a crash loses little of it.
+ *
+ * <p>{@link #update(Session, long)} is called from the game loop. When a save
+ * is due and the board is at rest, it takes a {@link SaveGame} snapshot of the
+ * session, which copies a few hundred bytes, and hands it to a background
+ * thread that writes it with {@link SaveGame#write(Path)}, so the file on disk
+ * is always a complete snapshot. The board is not locked and the game thread
+ * never waits for the disk; a save that is due while the previous one is still
+ * being written is skipped. Saving the game by hand and deleting the snapshot
+ * are handed to the same thread, so they happen after the snapshot being
+ * written.</p>
+ */
+public class AutoSave {
+
+	/** Writes the snapshots of all autosaves. */
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor((task) -> {
+		Thread thread = new Thread(task, "autosave-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Path file;
+	private final long intervalNanos;
+
+	/** Time of the last snapshot, game thread only. */
+	private long lastSave;
+	private boolean started;
+	/** The last snapshot handed to the writer. */
+	private volatile Future<?> pending = CompletableFuture.completedFuture(null);
+
+	/**
+	 * Constructor for an autosave.
+	 * @param file The file the snapshots are written to
+	 * @param intervalNanos Time between two snapshots in nanoseconds
+	 */
+	public AutoSave(Path file, long intervalNanos) {
+		this.file = file;
+		this.intervalNanos = intervalNanos;
+	}
+
+	/**
+	 * Getter method for the file.
+	 * @return The file the snapshots are written to
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Saves a snapshot of the session in the background if one is due.
+	 * The first call only starts the interval.
+	 * @param session The running session
+	 * @param now The current time in nanoseconds
+	 */
+	public void update(Session session, long now) {
+		if (!started) {
+			started = true;
+			lastSave = now;
+			return;
+		}
+		if (now - lastSave < intervalNanos || !pending.isDone()
+				|| session.getBoard().isLocked() || !session.getBoard().isAtRest()) {
+			return;
+		}
+		saveNow(session, now, null);
+	}
+
+	/**
+	 * Saves a snapshot of the session in the background right away and restarts
+	 * the interval.
+	 * @param session The running session
+	 * @param now The current time in nanoseconds
+	 * @param superseded A save game deleted once the snapshot is on disk, or null
+	 */
+	public void saveNow(Session session, long now, Path superseded) {
+		started = true;
+		lastSave = now;
+		SaveGame snapshot = session.getRestingSaveGame();
+		pending = WRITER.submit(() -> {
+			if (write(snapshot) && superseded != null) {
+				remove(superseded);
+			}
+		});
+	}
+
+	/**
+	 * Writes a snapshot. Runs on the writer thread.
+	 * @param snapshot The snapshot to write
+	 * @return true if the snapshot is on disk
+	 */
+	private boolean write(SaveGame snapshot) {
+		try {
+			snapshot.write(file);
+			Logger.logDebug("Autosaved to {}", file);
+			return true;
+		} catch (IOException e) {
+			Logger.logError("Could not autosave: {}", e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Waits until the snapshot being written is on disk.
+	 */
+	public void await() {
+		try {
+			pending.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Logger.logError("Autosaving failed: {}", e.getCause());
+		}
+	}
+
+	/**
+	 * Removes the snapshot in the background, after the one being written, and
+	 * restarts the interval.
+	 */
+	public void delete() {
+		started = false;
+		pending = WRITER.submit(() -> remove(file));
+	}
+
+	/**
+	 * Writes a save game in the background, after the snapshot being written,
+	 * and then removes the snapshot it replaces. The snapshot is kept if the save
+	 * game cannot be written. Restarts the interval.
+	 * @param saveGame The save game to write
+	 * @param target The file to write it to
+	 */
+	public void saveAs(SaveGame saveGame, Path target) {
+		started = false;
+		pending = WRITER.submit(() -> {
+			try {
+				saveGame.write(target);
+				Logger.logInfo("Game saved to {}", target);
+				remove(file);
+			} catch (IOException e) {
+				Logger.logError("Could not save the game: {}", e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Deletes a save game if it exists. Runs on the writer thread.
+	 * @param saveGame The file to delete
+	 */
+	private static void remove(Path saveGame) {
+		try {
+			Files.deleteIfExists(saveGame);
+		} catch (IOException e) {
+			Logger.logError("Could not delete {}: {}", saveGame, e.getMessage());
+		}
+	}
+
+	/**
+	 * Waits until everything handed to the writer by any autosave is done.
+	 * Called before the game exits, as the writer does not keep it running.
+	 */
+	public static void awaitAll() {
+		try {
+			WRITER.submit(() -> { }).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Logger.logError("Autosaving failed: {}", e.getCause());
+		}
+	}
+
+	/**
+	 * Reads the most recently written save game that is valid.
+	 * Files that are missing or hold no valid save game are skipped.
+	 * @param files The files to choose from, preferred first when equally recent
+	 * @return The save game, or null if none of the files holds a valid one
+	 */
+	public static SaveGame latest(Path... files) {
+		SaveGame latest = null;
+		long latestTime = Long.MIN_VALUE;
+		for (Path candidate : files) {
+			try {
+				long time = Files.getLastModifiedTime(candidate).toMillis();
+				if (time > latestTime) {
+					latest = SaveGame.read(candidate);
+					latestTime = time;
+				}
+			} catch (IOException e) {
+				if (Files.exists(candidate)) {
+					Logger.logWarning("Skipping {}: {}", candidate, e.getMessage());
+				}
+			}
+		}
+		return latest;
+	}
+}
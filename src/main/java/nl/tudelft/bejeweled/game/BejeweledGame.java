@@ -13,22 +13,13 @@ import javafx.scene.control.TextInputDialog;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import nl.tudelft.bejeweled.logger.Logger;
+import nl.tudelft.bejeweled.metrics.SaveGameEvent;
 import nl.tudelft.bejeweled.sprite.SpriteStore;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.ObjectInput;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutput;
-import java.io.ObjectOutputStream;
-import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.file.Paths;
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -42,9 +33,11 @@ public class BejeweledGame extends Game implements Serializable, SessionObserver
     public static final int SPRITE_HEIGHT = 64;
 
     private static final String SAVE_FILE = "save.mine";
+    public static final String AUTOSAVE_FILE = "autosave.mine";
+    private static final long AUTOSAVE_INTERVAL = TimeUnit.SECONDS.toNanos(30);
 
     private Session session;
-    private SpriteStore spriteStore;
+    private AutoSave autoSave = new AutoSave(Paths.get(AUTOSAVE_FILE), AUTOSAVE_INTERVAL);
     private Pane gamePane;
 
     private Label scoreLabel;
@@ -59,8 +52,7 @@ public class BejeweledGame extends Game implements Serializable, SessionObserver
      * @param spriteStore - The spriteStore.
     */
     public BejeweledGame(int framesPerSecond, String windowTitle, SpriteStore spriteStore) {
-        super(framesPerSecond, windowTitle);
-        this.spriteStore = spriteStore;
+        super(framesPerSecond, windowTitle, spriteStore);
         try {
         	setHighScore(new HighScore());
         
@@ -83,9 +75,8 @@ public class BejeweledGame extends Game implements Serializable, SessionObserver
     */
     public BejeweledGame(int framesPerSecond, String windowTitle,
     						SpriteStore spriteStore, String boardLocation) {
-        super(framesPerSecond, windowTitle);
+        super(framesPerSecond, windowTitle, spriteStore);
         this.boardLocation = boardLocation;
-        this.spriteStore = spriteStore;
         try {
         	setHighScore(new HighScore());
         
@@ -105,13 +96,13 @@ public class BejeweledGame extends Game implements Serializable, SessionObserver
     	Logger.logInfo("Game started");
     	//Clean up existing sprites
     	gamePane.getChildren().remove(getSceneNodes());
-        spriteStore.removeAllSprites();    
+        getSpriteStore().removeAllSprites();    
         
         setSceneNodes(new Group());
         if (boardLocation == null) {
-        	session = new Session(spriteStore, getSceneNodes());
+        	session = new Session(getSpriteStore(), getSceneNodes());
         } else {
-        	session = new Session(spriteStore, getSceneNodes(), boardLocation);
+        	session = new Session(getSpriteStore(), getSceneNodes(), boardLocation);
         }
         session.addObserver(this);
         updateLevel();
@@ -134,14 +125,14 @@ public class BejeweledGame extends Game implements Serializable, SessionObserver
         if (session != null) {
         	session.lockBoard();
 
-        Logger.logInfo("Final score: " + session.getScore());
+        Logger.logInfo("Final score: {}", session.getScore());
         int place = getHighScore().isHighScore(session.getScore());   
         if (place >  0) {
         	Optional<String> result = showTextInputDialog("Enter your name",
                     "Congratulations, you achieved a highscore." + " Please enter your name:");
 			result.ifPresent(name -> {
 				try {
-                    getHighScore().addHighScore(session.getScore(), name);
+                    getHighScore().addHighScore(session.getScore(), name, session.getSeed());
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
@@ -185,6 +176,7 @@ public class BejeweledGame extends Game implements Serializable, SessionObserver
     protected void updateLogic() {
     	if (session != null) {
         	session.update();
+        	autoSave.update(session, System.nanoTime());
     	}
     }
         
@@ -202,81 +194,43 @@ public class BejeweledGame extends Game implements Serializable, SessionObserver
     		if (session.getBoard().isLocked()) {
     			return;
     		}
+            SaveGameEvent event = new SaveGameEvent();
+            event.begin();
             session.getBoard().removeJewelSelection();
 	    	session.lockBoard();
-	        try {
-	        	//Before writing, convert the board to a serializable state
-	        	session.getBoard().setState(session.getBoard().convertGrid());
-	        	session.getBoard().saveExplosivesAndHypers();
-	        	
-	            OutputStream file = new FileOutputStream(SAVE_FILE);
-	            OutputStream buffer = new BufferedOutputStream(file);
-	            ObjectOutput output = new ObjectOutputStream(buffer);
-	            output.writeObject(session);
-	            output.flush();
-	            output.close();
-	       
-	        } catch (IOException e) {
-	            e.printStackTrace();
-	        }      
-	    //    gamePane.getChildren().remove(getSceneNodes());
-	     //   spriteStore.removeAllSprites();
-	        Logger.logInfo("Game saved");
+	    	// written after a pending autosave, which may still delete the save game
+	    	SaveGame saveGame = session.getRestingSaveGame();
+	    	autoSave.saveAs(saveGame, Paths.get(SAVE_FILE));
+	        event.commit(SaveGameEvent.SAVE, saveGame.size());
     	}
     }
     
     @Override
     public void resume() {
-    	 File saveFile = new File(SAVE_FILE);
-         if (!saveFile.exists()) {
-             return;
-         }
+    	SaveGameEvent event = new SaveGameEvent();
+    	event.begin();
+    	SaveGame saveGame = AutoSave.latest(Paths.get(SAVE_FILE), autoSave.getFile());
+    	if (saveGame == null) {
+    		// the files are kept, so a save game of another version is not lost
+    		Logger.logWarning("No save game could be resumed");
+    		return;
+    	}
     	//Clean up existing sprites
     	gamePane.getChildren().remove(getSceneNodes());
-        spriteStore.removeAllSprites();
-      
-    	session = readSessionFromFile(SAVE_FILE);
+        getSpriteStore().removeAllSprites();
+    	session = new Session(getSpriteStore(), getSceneNodes(), saveGame);
         session.addObserver(this);
-       //Restore the grid from its serialized form
-       session.getBoard().makeGrid(getSceneNodes());
-       session.unlockBoard();
-       session.setSceneNodes(getSceneNodes());
-       session.getBoard().restoreExplosivesAndHypers();
        updateLevel();
        updateScore();
-       session.getBoard().addObserver(session);
 
-       saveFile.delete(); 
-       Logger.logInfo("Game resumed");       
-       scoreLabel.setText(Integer.toString(session.getScore()));
+       // the save game is only deleted once the autosave holds the resumed session
+       autoSave.saveNow(session, System.nanoTime(), Paths.get(SAVE_FILE));
+       Logger.logInfo("Game resumed");
+       event.commit(SaveGameEvent.RESUME, saveGame.size());
        gamePane.getChildren().add(new Scene(getSceneNodes(), gamePane.getWidth(), 
                                            gamePane.getHeight()).getRoot());
     }
 
-    /**
-     * Read a session from a file. The file must be a session saved in a compatible serialized form.
-     * @param fileName the file to read from.
-     * @return the saved session.
-     */
-    public Session readSessionFromFile(String fileName) {
-    	Session session = null;
-        InputStream file;       
-       try {
-           file = new FileInputStream(fileName);
-           InputStream buffer = new BufferedInputStream(file);
-           ObjectInput input = new ObjectInputStream(buffer);
-           session = (Session) input.readObject();
-           input.close();
-       } catch (FileNotFoundException e) {
-           e.printStackTrace();
-       } catch (IOException e) {
-           e.printStackTrace();
-       } catch (ClassNotFoundException e) {
-           e.printStackTrace();
-       }
-       return session;
-    }
-    
     /**
      * Shows a text input dialog.
      * @param title Title of the dialog.
@@ -292,10 +246,11 @@ public class BejeweledGame extends Game implements Serializable, SessionObserver
     }
 
     /**
-     * Removes the save game if it exists.
+     * Removes the save game and the autosave if they exist.
      */
     @Override
     public void removeSaveGame() {
+        autoSave.delete();
         File saveFile = new File(SAVE_FILE);
         if (saveFile.exists() && saveFile.delete()) {
             Logger.logInfo("Save files deleted.");
@@ -0,0 +1,69 @@
+package nl.tudelft.bejeweled.game;
+
+/**
+ * Accumulator for a fixed timestep loop.
+ *
+ * <p>The time between frames is added to an accumulator, which is spent in
+ * steps of a fixed length. What is left over is the fraction of a step the
+ * display runs ahead of the logic, used to interpolate the rendering. A
+ * single long frame adds at most a limited amount of time and a frame runs
+ * at most a limited number of steps, so the loop never spirals trying to
+ * catch up after a stall.</p>
+ */
+public class FixedTimestep {
+
+    private final long stepNanos;
+    private final int maxSteps;
+    private final long maxFrameNanos;
+
+    private long lastTime = -1;
+    private long accumulator;
+
+    /**
+     * Constructor for the timestep.
+     * @param stepNanos Length of one logic step in nanoseconds.
+     * @param maxSteps Maximum number of steps to run in one frame.
+     * @param maxFrameNanos Maximum time in nanoseconds a single frame may add.
+     */
+    public FixedTimestep(long stepNanos, int maxSteps, long maxFrameNanos) {
+        this.stepNanos = stepNanos;
+        this.maxSteps = maxSteps;
+        this.maxFrameNanos = maxFrameNanos;
+    }
+
+    /**
+     * Advances the clock to the time of a new frame.
+     * @param now Time of the frame in nanoseconds.
+     * @return The number of logic steps to run for this frame.
+     */
+    public int advance(long now) {
+        if (lastTime < 0) {
+            lastTime = now;
+            return 0;
+        }
+        accumulator += Math.min(now - lastTime, maxFrameNanos);
+        lastTime = now;
+        int steps = (int) Math.min(accumulator / stepNanos, maxSteps);
+        accumulator -= steps * stepNanos;
+        if (steps == maxSteps) {
+            accumulator = Math.min(accumulator, stepNanos - 1);
+        }
+        return steps;
+    }
+
+    /**
+     * Getter for the fraction of a step the display runs ahead of the logic.
+     * @return The interpolation factor, between 0 and 1.
+     */
+    public double getAlpha() {
+        return (double) accumulator / stepNanos;
+    }
+
+    /**
+     * Forgets the time of the last frame, for instance after the loop was paused.
+     */
+    public void reset() {
+        lastTime = -1;
+        accumulator = 0;
+    }
+}
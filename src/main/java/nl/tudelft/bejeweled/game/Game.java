@@ -1,20 +1,16 @@
 package nl.tudelft.bejeweled.game;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.event.ActionEvent;
-import javafx.event.EventHandler;
 import javafx.scene.Group;
 import javafx.scene.control.Label;
 import javafx.scene.layout.Pane;
-import javafx.util.Duration;
+import nl.tudelft.bejeweled.metrics.GameMetrics;
+import nl.tudelft.bejeweled.metrics.GameMetrics.Gauge;
+import nl.tudelft.bejeweled.metrics.GameMetrics.Phase;
 import nl.tudelft.bejeweled.sprite.Sprite;
 import nl.tudelft.bejeweled.sprite.SpriteStore;
 
 import java.io.Serializable;
-import java.util.Iterator;
-import java.util.TreeMap;
+import java.util.List;
 
 /**
  * Created by Jeroen on 3-9-2015.
@@ -25,8 +21,8 @@ public abstract class Game implements Serializable {
     /** All nodes to be displayed in the game window. */
     private Group sceneNodes;
 
-    /** The game loop using JavaFX's <code>Timeline</code> API.*/
-    private static Timeline gameLoop;
+    /** The fixed timestep game loop, driven by JavaFX's <code>AnimationTimer</code>. */
+    private transient GameLoop gameLoop;
 
     /** Number of frames per second. */
     private final int framesPerSecond;
@@ -44,7 +40,7 @@ public abstract class Game implements Serializable {
     /**
      * The sprite manager.
      */
-    private final SpriteStore spriteStore = new SpriteStore();
+    private final transient SpriteStore spriteStore;
 
     /**
      * Constructor that is called by the derived class. This will
@@ -53,43 +49,69 @@ public abstract class Game implements Serializable {
      * @param windowTitle - The title displayed in the window.
      */
     public Game(int framesPerSecond, final String windowTitle) {
+        this(framesPerSecond, windowTitle, new SpriteStore());
+    }
+
+    /**
+     * Constructor that is called by the derived class. This will
+     * set the frames per second, title, sprite store and setup the game loop.
+     * @param framesPerSecond - The number of frames per second the game will attempt to render.
+     * @param windowTitle - The title displayed in the window.
+     * @param spriteStore - The sprite store holding the sprites of this game.
+     */
+    public Game(int framesPerSecond, final String windowTitle, SpriteStore spriteStore) {
         this.framesPerSecond = framesPerSecond;
         this.windowTitle = windowTitle;
+        this.spriteStore = spriteStore;
 
         // create and set timeline for the game loop
         buildAndSetGameLoop();
     }
 
     /**
-     * Builds and sets the game loop ready to be started.
+     * Builds and sets the game loop ready to be started. The logic runs
+     * at the frames per second of the game, independent of the display rate.
      */
     protected final void buildAndSetGameLoop() {
-        final Duration oneFrameAmt = Duration.seconds(1.0 / getFramesPerSecond());
-        final KeyFrame oneFrame = new KeyFrame(oneFrameAmt,
-                new EventHandler<ActionEvent>() {
-
-                    @Override
-                    public void handle(javafx.event.ActionEvent event) {
-
-                    	//update board
-                    	updateLogic();
-                    	
-                        // update actors
-                        updateSprites();
-
-                        // removed dead things
-                        cleanupSprites();
+        final GameLoop gameLoop = new GameLoop(this, getFramesPerSecond());
+        gameLoop.start();
 
-                    }
-                }); // oneFrame
+        setGameLoop(gameLoop);
+    }
 
-        // sets the game world's game loop (Timeline)
-        final Timeline gameLoop = new Timeline();
-        gameLoop.setCycleCount(Animation.INDEFINITE);
-        gameLoop.getKeyFrames().add(oneFrame);
-        gameLoop.play();
+    /**
+     * Runs one fixed length step of the game logic, timing each phase.
+     */
+    void step() {
+        long start = System.nanoTime();
+    	//update board
+    	updateLogic();
+        long logicDone = System.nanoTime();
+
+        // update actors
+        updateSprites();
+        long spritesDone = System.nanoTime();
+
+        // removed dead things
+        cleanupSprites();
+        long end = System.nanoTime();
+
+        GameMetrics.time(Phase.LOGIC, logicDone - start);
+        GameMetrics.time(Phase.SPRITES, spritesDone - logicDone);
+        GameMetrics.time(Phase.CLEANUP, end - spritesDone);
+        GameMetrics.time(Phase.STEP, end - start);
+        GameMetrics.sample(Gauge.SPRITES, spriteStore.size());
+        GameMetrics.sample(Gauge.ACTIVE_SPRITES, spriteStore.activeCount());
+    }
 
-        setGameLoop(gameLoop);
+    /**
+     * Renders the moving sprites between the last logic step and the next.
+     * @param alpha The fraction of a step that has passed since the last step.
+     */
+    protected void render(double alpha) {
+        for (int i = 0; i < spriteStore.activeCount(); i++) {
+            spriteStore.getActive(i).render(alpha);
+        }
     }
 
     /**
@@ -100,14 +122,13 @@ public abstract class Game implements Serializable {
      */
     public abstract void initialise(Pane gamePane, Label scoreLabel, Label levelLabel);
 
-    /**Kicks off (plays) the Timeline objects containing one key frame
-     * that simply runs indefinitely with each frame invoking a method
-     * to update sprite objects, check for collisions, and cleanup sprite
-     * objects.
+    /**Kicks off (starts) the game loop, which runs on every pulse
+     * invoking methods to update sprite objects, check for collisions,
+     * and cleanup sprite objects at a fixed rate.
      *
      */
     public void beginGameLoop() {
-        getGameLoop().play();
+        getGameLoop().start();
     }
     
     /**
@@ -120,14 +141,22 @@ public abstract class Game implements Serializable {
     
 
     /**
-     * Updates each game sprite in the game world. This method will
-     * loop through each sprite and passing it to the handleUpdate()
-     * method. The derived class should override handleUpdate() method.
+     * Updates each active game sprite in the game world. This method will
+     * loop through each moving sprite and passing it to the handleUpdate()
+     * method. Sprites that stopped moving are made idle. The derived class
+     * should override handleUpdate() method.
      *
      */
     protected void updateSprites() {
-        for (Iterator<Sprite> i =  spriteStore.getAllSprites().iterator(); i.hasNext();) {
-            handleUpdate(i.next());
+        int i = 0;
+        while (i < spriteStore.activeCount()) {
+            Sprite sprite = spriteStore.getActive(i);
+            handleUpdate(sprite);
+            if (sprite.isMoving()) {
+                i++;
+            } else {
+                spriteStore.deactivate(sprite);
+            }
         }
     }
 
@@ -154,30 +183,29 @@ public abstract class Game implements Serializable {
     }
 
     /**
-     * The game loop (Timeline) which is used to update, check collisions, and
+     * The game loop which is used to update, check collisions, and
      * cleanup sprite objects at every interval (fps).
-     * @return Timeline An animation running indefinitely representing the game
+     * @return GameLoop The timer running indefinitely representing the game
      * loop.
      */
-    protected static Timeline getGameLoop() {
+    protected GameLoop getGameLoop() {
         return gameLoop;
     }
 
     /**
      * The sets the current game loop for this game world.
-     * @param gameLoop Timeline object of an animation running indefinitely
-     * representing the game loop.
+     * @param gameLoop The timer running indefinitely representing the game loop.
      */
-    protected static void setGameLoop(Timeline gameLoop) {
-        Game.gameLoop = gameLoop;
+    protected void setGameLoop(GameLoop gameLoop) {
+        this.gameLoop = gameLoop;
     }
     
     /**
-     * The map of names and highscores.
-     * @return a TreeMap<Integer, String> of the scores and corresponding player names
+     * The list of names and highscores.
+     * @return the leaderboard entries of the scores and corresponding player names, best first
      */
-    public TreeMap<Integer, String> getHighScores() {
-    	return highScore.getHighScores();
+    public List<LeaderboardEntry> getHighScores() {
+    	return highScore.getLeaderboard().getEntries();
     }
 
     /**
@@ -0,0 +1,62 @@
+package nl.tudelft.bejeweled.game;
+
+import javafx.animation.AnimationTimer;
+import nl.tudelft.bejeweled.metrics.GameMetrics;
+import nl.tudelft.bejeweled.metrics.GameMetrics.Phase;
+
+/**
+ * Game loop running the logic of a game at a fixed rate.
+ *
+ * <p>Runs on every JavaFX pulse. Each pulse runs as many fixed length logic
+ * steps as the elapsed time asks for, bounded by a catch-up limit, and then
+ * renders the game interpolated between the last step and the next.</p>
+ */
+public class GameLoop extends AnimationTimer {
+
+    /** Maximum number of logic steps run in a single pulse. */
+    public static final int MAX_STEPS_PER_FRAME = 5;
+
+    /** Maximum time a single pulse may account for, in nanoseconds. */
+    public static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Game game;
+    private final FixedTimestep timestep;
+
+    /** Time of the previous pulse, or 0 before the first one. */
+    private long lastPulse;
+
+    /**
+     * Constructor for the game loop.
+     * @param game The game to run.
+     * @param stepsPerSecond The number of logic steps per second.
+     */
+    public GameLoop(Game game, int stepsPerSecond) {
+        this.game = game;
+        this.timestep = new FixedTimestep(NANOS_PER_SECOND / stepsPerSecond,
+                MAX_STEPS_PER_FRAME, MAX_FRAME_NANOS);
+    }
+
+    @Override
+    public void handle(long now) {
+        if (lastPulse != 0) {
+            GameMetrics.time(Phase.FRAME, now - lastPulse);
+        }
+        lastPulse = now;
+        int steps = timestep.advance(now);
+        for (int i = 0; i < steps; i++) {
+            game.step();
+        }
+        long start = System.nanoTime();
+        game.render(timestep.getAlpha());
+        GameMetrics.time(Phase.RENDER, System.nanoTime() - start);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        timestep.reset();
+        lastPulse = 0;
+    }
+}
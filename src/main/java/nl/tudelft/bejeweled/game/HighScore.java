@@ -1,28 +1,48 @@
 package nl.tudelft.bejeweled.game;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.TreeMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 
 import nl.tudelft.bejeweled.logger.Logger;
+import nl.tudelft.bejeweled.metrics.HighScoreWriteEvent;
 
 /**
  * Class to handle the HighScore system. 
  * 
- * This class will keep track of a list of the 5 highest scores achieved. It will connect
- * the scores to names given for each score. It will save the scores in a xml file. The checking
- * and adding of the scores will be handled by the Game class that holds a HighScore object.
+ * This class will keep track of a {@link Leaderboard} of the highest scores achieved, 5 by
+ * default. It will connect the scores to names given for each score; players with the same
+ * score share a place. The checking and adding of the scores will be handled by the Game
+ * class that holds a HighScore object.
+ * 
+ * <p>Every score added is appended to a binary journal, see {@link HighScoreLog}, from
+ * which the leaderboard is rebuilt when loading. Once the journal holds many more scores
+ * than the leaderboard it is compacted: it is rewritten with only the leaderboard, and the
+ * leaderboard is saved to a readable xml file, which is also read when there is no journal
+ * yet. All files are written by a background thread, to a temporary file that is renamed
+ * over the old one, so they are always complete. Loading waits for pending writes. The
+ * files are kept in the working directory unless another directory is given.</p>
  * 
  * @author jan
  *
@@ -30,11 +50,44 @@ import nl.tudelft.bejeweled.logger.Logger;
 @XmlRootElement
 public class HighScore implements Serializable {
 
-	@XmlElement
-	private TreeMap<Integer, String> highscores;
+	/** The entries as written to the xml file, best score first. */
+	@XmlElementWrapper(name = "highscores")
+	@XmlElement(name = "entry")
+	private List<LeaderboardEntry> highscores;
+	@XmlTransient
+	private Leaderboard leaderboard;
+	/** The directory holding the highscore files. */
+	@XmlTransient
+	private Path directory;
+	/** The readable xml file. */
+	@XmlTransient
+	private Path snapshot;
+	@XmlTransient
+	private HighScoreLog journal;
 	private static final String HIGHSCOREFILE = "highscores.xml";
+	private static final String TEMPFILE = HIGHSCOREFILE + ".tmp";
+	private static final String JOURNALFILE = "highscores.log";
+	/** Number of journal records per leaderboard place at which the journal is compacted. */
+	private static final int COMPACTION_RATIO = 4;
+	
+	/** Writes the highscore files, one save at a time. */
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor((task) -> {
+		Thread thread = new Thread(task, "highscore-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private static JAXBContext context;
+	private static Unmarshaller unmarshaller;
+	/** Marshaller of the writer thread. */
+	private static Marshaller marshaller;
+	/** The last save handed to the writer. */
+	private static volatile Future<?> pendingSave = CompletableFuture.completedFuture(null);
+	
 	private static final int ENTRIES = 5;
 	private boolean loaded = false;
+	/** Number of records in the journal. */
+	private int records;
 	
 	/**
 	 * Returns the state of the HighScore handler.
@@ -45,15 +98,62 @@ public class HighScore implements Serializable {
 	}
 
 	/**
-	 * Constructor which creates a new empty TreeMap.
-	 * @throws JAXBException If anything unexpected happens during JAXBContext creation
+	 * Constructor which creates a new empty leaderboard with the default number of places.
 	 */
 	public HighScore() {
-		highscores = new TreeMap<Integer, String>();
+		this(ENTRIES);
+	}
+	
+	/**
+	 * Constructor which creates a new empty leaderboard.
+	 * @param entries Number of places on the leaderboard
+	 */
+	public HighScore(int entries) {
+		this(entries, Paths.get(""));
+	}
+	
+	/**
+	 * Constructor which creates a new empty leaderboard kept in a directory.
+	 * @param entries Number of places on the leaderboard
+	 * @param directory The directory holding the highscore files
+	 */
+	public HighScore(int entries, Path directory) {
+		highscores = new ArrayList<LeaderboardEntry>();
+		leaderboard = new Leaderboard(entries);
+		this.directory = directory;
+		snapshot = directory.resolve(HIGHSCOREFILE);
+		journal = HighScoreLog.of(directory.resolve(JOURNALFILE));
 	}
 	
 	/**
-	 * Loads the highscore file and fills the TreeMap with the entries found.
+	 * Getter for the shared JAXB context, which is created on first use.
+	 * @return The JAXB context for the HighScore class
+	 * @throws JAXBException If the context cannot be created
+	 */
+	private static synchronized JAXBContext getContext() throws JAXBException {
+		if (context == null) {
+			context = JAXBContext.newInstance(HighScore.class);
+		}
+		return context;
+	}
+	
+	/**
+	 * Reads highscores with the shared unmarshaller.
+	 * @param is Stream with the xml of the highscores
+	 * @return The highscores read
+	 * @throws JAXBException If the stream does not hold valid highscores
+	 */
+	private static synchronized HighScore unmarshal(InputStream is) throws JAXBException {
+		if (unmarshaller == null) {
+			unmarshaller = getContext().createUnmarshaller();
+		}
+		return (HighScore) unmarshaller.unmarshal(is);
+	}
+	
+	/**
+	 * Loads the highscores and fills the leaderboard with the entries found.
+	 * The journal is read if it exists, the xml file otherwise.
+	 * Waits for pending saves first, so the files read are the latest ones.
 	 * @throws JAXBException If something unexpected happens during unmarshalling of the file
 	 */
 	public void loadHighScores() throws JAXBException {
@@ -61,61 +161,153 @@ public class HighScore implements Serializable {
 			Logger.logInfo("Loading HighScores");
 		}
 		
-		JAXBContext jc = JAXBContext.newInstance(HighScore.class);
-		Unmarshaller um = jc.createUnmarshaller();
+		awaitPendingSaves();
+		leaderboard = new Leaderboard(leaderboard.getCapacity());
+		records = 0;
+		boolean journaled = journal.exists() && readJournal();
+		if (!journaled) {
+			readSnapshot();
+		}
+		
+		loaded = true;
+		if (!journaled || journal.isTruncated() || records > leaderboard.size()) {
+			compact();
+		}
+	}
+	
+	/**
+	 * Rebuilds the leaderboard from the journal.
+	 * @return true if the journal could be read
+	 */
+	private boolean readJournal() {
 		try {
-			InputStream is = new FileInputStream(HIGHSCOREFILE);
-			HighScore hs = (HighScore) um.unmarshal(is);
-			highscores = hs.getHighScores();
-			is.close();
+			records = journal.read(leaderboard::add);
+			return true;
+		} catch (IOException e) {
+			Logger.logWarning("Could not read the highscore journal: {}", e.getMessage());
+			return false;
+		}
+	}
+	
+	/**
+	 * Fills the leaderboard from the xml file.
+	 */
+	private void readSnapshot() {
+		try (InputStream is = Files.newInputStream(snapshot)) {
+			HighScore hs = unmarshal(is);
+			for (LeaderboardEntry entry : hs.highscores) {
+				leaderboard.add(entry);
+			}
 		}
 		catch (JAXBException | IOException ex) {
 			Logger.logInfo("No highscore file existing, creating one");
 		}
+	}
+	
+	/**
+	 * Hands a copy of the leaderboard to the writer thread, which rewrites the journal
+	 * with only these entries and saves them in the xml file.
+	 * @throws JAXBException Throws exception if the JAXB context cannot be created
+	 */
+	private void compact() throws JAXBException {
+		HighScore copy = new HighScore(leaderboard.getCapacity(), directory);
+		copy.highscores.addAll(leaderboard.getEntries());
+		records = copy.highscores.size();
+		getContext();
+		pendingSave = WRITER.submit(() -> rewrite(copy));
 		
-		loaded = true;
+		Logger.logInfo("Compacting the highscores");
 	}
 	
 	/**
-	 * Saves the highScores in the specified xml file.
-	 * @throws JAXBException Throws exception if marshalling fails
+	 * Rewrites the journal and the xml file. Runs on the writer thread.
+	 * @param copy The highscores to write, to the files of the copy
 	 */
-	private void saveHighScores() throws JAXBException {
-		if (!loaded) {
-			return;
+	private static void rewrite(HighScore copy) {
+		try {
+			copy.journal.rewrite(copy.highscores);
+			if (marshaller == null) {
+				marshaller = getContext().createMarshaller();
+				marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+			}
+			File temp = copy.directory.resolve(TEMPFILE).toFile();
+			marshaller.marshal(copy, temp);
+			Files.move(temp.toPath(), copy.snapshot,
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (JAXBException | IOException e) {
+			Logger.logError("Could not save the highscores: {}", e.getMessage());
 		}
-		
-		JAXBContext jc = JAXBContext.newInstance(HighScore.class);
-		Marshaller m = jc.createMarshaller();
-		m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-		m.marshal(this, new File(HIGHSCOREFILE));
-		
-		Logger.logInfo("Saving to file");
 	}
 	
 	/**
-	 * Adds a score to the list of highscores and saves to file.
+	 * Appends an entry to a journal. Runs on the writer thread.
+	 * @param journal The journal to append to
+	 * @param entry The entry to append
+	 * @param entries Number of entries on the leaderboard
+	 * @param event Event recording the write
+	 */
+	private static void append(HighScoreLog journal, LeaderboardEntry entry, int entries,
+			HighScoreWriteEvent event) {
+		try {
+			int bytes = journal.append(entry);
+			event.commit(entry.getScore(), entries, bytes);
+		} catch (IOException e) {
+			Logger.logError("Could not save the highscore: {}", e.getMessage());
+		}
+	}
+	
+	/**
+	 * Waits until all highscores handed to the writer thread are in the file.
+	 */
+	public static void awaitPendingSaves() {
+		try {
+			pendingSave.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Logger.logError("Saving the highscores failed: {}", e.getCause());
+		}
+	}
+	
+	/**
+	 * Adds a score of an unknown session to the list of highscores and saves it.
 	 * @param score Score to add to the highscore list
 	 * @param name Name of the player that achieved the highscore
-	 * @throws JAXBException Throws exception if saveHighScores fails
+	 * @throws JAXBException Throws exception if compacting the highscores fails
 	 */
 	public void addHighScore(int score, String name) throws JAXBException {
+		addHighScore(score, name, 0);
+	}
+	
+	/**
+	 * Adds a score to the list of highscores and appends it to the journal.
+	 * @param score Score to add to the highscore list
+	 * @param name Name of the player that achieved the highscore
+	 * @param seed Seed of the session in which the score was achieved
+	 * @throws JAXBException Throws exception if compacting the highscores fails
+	 */
+	public void addHighScore(int score, String name, long seed) throws JAXBException {
 		if (!loaded) {
 			return;
 		}
+		HighScoreWriteEvent event = new HighScoreWriteEvent();
+		event.begin();
 		
-		highscores.put(score, name);
+		LeaderboardEntry entry = new LeaderboardEntry(score, name,
+				System.currentTimeMillis(), seed);
+		leaderboard.add(entry);
+		int entries = leaderboard.size();
+		pendingSave = WRITER.submit(() -> append(journal, entry, entries, event));
+		records++;
+		Logger.logInfo("Adding score to the highscores");
 		
-		if (highscores.size() > ENTRIES) {
-			highscores.remove(highscores.firstKey());
+		if (records > COMPACTION_RATIO * leaderboard.getCapacity()) {
+			compact();
 		}
-		
-		saveHighScores();
-		Logger.logInfo("Adding score to the highscores");
 	}
 	
 	/**
-	 * Checks if the given score is as good or better than the top 5 scores.
+	 * Checks if the given score is as good or better than the lowest score on the leaderboard.
 	 * @param score Score to be checked for a highscore
 	 * @return Returns the place of the score, returns 0 if the score is no high score
 	 */
@@ -125,28 +317,14 @@ public class HighScore implements Serializable {
 		}
 		Logger.logInfo("Checking whether the score is a highscore");
 		
-		TreeMap<Integer, String> tempScores = new TreeMap<Integer, String>();
-		tempScores.putAll(highscores);
-		tempScores.put(score, "none");
-		int place = Arrays.binarySearch(tempScores.keySet().toArray(), score);
-		int size = tempScores.size();
-
-		if (size <= ENTRIES) {
-			return ENTRIES - place;
-		}
-		else if (place == 0) {
-			return place;
-		}
-		else {
-			return ENTRIES - place + 1;
-		}
+		return leaderboard.rank(score);
 	}
 	
 	/**
-	 * Returns the current list of highscores.
-	 * @return returns the TreeMap of highscores and names
+	 * Returns the current highscores.
+	 * @return returns the leaderboard with the highscores and names
 	 */
-	public TreeMap<Integer, String> getHighScores() {
-		return highscores;
+	public Leaderboard getLeaderboard() {
+		return leaderboard;
 	}
 }
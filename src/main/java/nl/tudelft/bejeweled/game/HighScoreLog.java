@@ -0,0 +1,239 @@
+package nl.tudelft.bejeweled.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of highscores.
+ *
+ * <p>The file starts with a magic number and a format version, followed by one
+ * record per score: a CRC32 of the rest of the record, the length of the name,
+ * the score, the time it was achieved, the seed of the session and the name in
+ * UTF-8. Adding a score appends a single record. Reading stops at the first
+ * record that is incomplete or does not match its checksum, which is what a
+ * write interrupted by a crash leaves behind; {@link #rewrite(List)} replaces
+ * the whole journal with only the given entries. Reading happens while the
+ * game starts, writing on the highscore writer thread, which keeps the journal
+ * open for appending until it is rewritten. All highscores kept in the same
+ * file share one journal, see {@link #of(Path)}.</p>
+ */
+final class HighScoreLog {
+
+	private static final int MAGIC = 0x424A4853;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+	/** Size of a record without the name. */
+	private static final int RECORD_SIZE = 3 * Integer.BYTES + 2 * Long.BYTES;
+
+	/** The journals handed out by {@link #of(Path)}, by absolute path. */
+	private static final Map<Path, HighScoreLog> JOURNALS = new HashMap<>();
+
+	private final Path file;
+	private boolean truncated;
+	/** Channel appending to the journal, opened on the first append. */
+	private FileChannel appender;
+
+	/**
+	 * Constructor for a journal.
+	 * @param file Path of the journal file
+	 */
+	HighScoreLog(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Getter for the journal of a file, shared by everyone using that file.
+	 * @param file Path of the journal file
+	 * @return The journal
+	 */
+	static synchronized HighScoreLog of(Path file) {
+		return JOURNALS.computeIfAbsent(file.toAbsolutePath().normalize(), HighScoreLog::new);
+	}
+
+	/**
+	 * Checks whether the journal file exists.
+	 * @return true if there is a journal
+	 */
+	boolean exists() {
+		return Files.exists(file);
+	}
+
+	/**
+	 * Checks whether the last read found a damaged tail, which a rewrite removes.
+	 * @return true if records after the last valid one were skipped
+	 */
+	boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * Reads all valid records of the journal.
+	 * @param sink Receives the entries in the order they were added
+	 * @return The number of records read
+	 * @throws IOException If the file cannot be read or is no highscore journal
+	 */
+	int read(Consumer<LeaderboardEntry> sink) throws IOException {
+		truncated = false;
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = ByteBuffer.allocate((int) channel.size());
+			int read = 0;
+			while (buffer.hasRemaining() && read >= 0) {
+				read = channel.read(buffer);
+			}
+		}
+		buffer.flip();
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC
+				|| buffer.getInt() != VERSION) {
+			throw new IOException(file + " is not a highscore journal");
+		}
+		int records = 0;
+		LeaderboardEntry entry = decode(buffer);
+		while (entry != null) {
+			sink.accept(entry);
+			records++;
+			entry = decode(buffer);
+		}
+		truncated = buffer.hasRemaining();
+		return records;
+	}
+
+	/**
+	 * Appends a record, creating the journal if it does not exist yet.
+	 * The journal stays open for the next record.
+	 * @param entry The entry to append
+	 * @return The number of bytes written
+	 * @throws IOException If the record cannot be written
+	 */
+	int append(LeaderboardEntry entry) throws IOException {
+		if (appender == null) {
+			appender = FileChannel.open(file, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		}
+		try {
+			ByteBuffer record = encode(entry);
+			int bytes = record.remaining();
+			if (appender.size() == 0) {
+				writeFully(appender, header());
+			}
+			writeFully(appender, record);
+			return bytes;
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes the journal for appending. The next append opens it again.
+	 * @throws IOException If the journal cannot be closed
+	 */
+	void close() throws IOException {
+		if (appender != null) {
+			FileChannel channel = appender;
+			appender = null;
+			channel.close();
+		}
+	}
+
+	/**
+	 * Replaces the journal by one holding only the given entries.
+	 * The new journal is written to a temporary file that is moved over the old one,
+	 * so the journal is closed for appending first.
+	 * @param entries The entries to keep, in the order they are read back
+	 * @throws IOException If the journal cannot be written
+	 */
+	void rewrite(List<LeaderboardEntry> entries) throws IOException {
+		close();
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeFully(channel, header());
+			for (LeaderboardEntry entry : entries) {
+				writeFully(channel, encode(entry));
+			}
+			channel.force(false);
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Creates the header of a journal.
+	 * @return Buffer holding the header, ready to be written
+	 */
+	private static ByteBuffer header() {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).flip();
+		return header;
+	}
+
+	/**
+	 * Encodes an entry as a record.
+	 * @param entry The entry to encode
+	 * @return Buffer holding the record, ready to be written
+	 */
+	private static ByteBuffer encode(LeaderboardEntry entry) {
+		byte[] name = entry.getName().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE + name.length);
+		record.position(Integer.BYTES);
+		record.putInt(name.length).putInt(entry.getScore()).putLong(entry.getTime())
+				.putLong(entry.getSeed()).put(name);
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), Integer.BYTES, record.capacity() - Integer.BYTES);
+		record.putInt(0, (int) crc.getValue()).flip();
+		return record;
+	}
+
+	/**
+	 * Decodes the next record.
+	 * @param buffer Buffer positioned at the record, which is advanced past it if it is valid
+	 * @return The entry, or null if the buffer holds no complete and valid record
+	 */
+	private static LeaderboardEntry decode(ByteBuffer buffer) {
+		int start = buffer.position();
+		if (buffer.remaining() < RECORD_SIZE) {
+			return null;
+		}
+		int checksum = buffer.getInt(start);
+		int length = buffer.getInt(start + Integer.BYTES);
+		if (length < 0 || length > buffer.remaining() - RECORD_SIZE) {
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), start + Integer.BYTES, RECORD_SIZE - Integer.BYTES + length);
+		if ((int) crc.getValue() != checksum) {
+			return null;
+		}
+		buffer.position(start + 2 * Integer.BYTES);
+		int score = buffer.getInt();
+		long time = buffer.getLong();
+		long seed = buffer.getLong();
+		String name = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return new LeaderboardEntry(score, name, time, seed);
+	}
+
+	/**
+	 * Writes a whole buffer to a channel.
+	 * @param channel The channel to write to
+	 * @param buffer The bytes to write
+	 * @throws IOException If writing fails
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+}
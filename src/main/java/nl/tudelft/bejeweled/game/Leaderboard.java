@@ -0,0 +1,114 @@
+package nl.tudelft.bejeweled.game;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The best scores achieved, allowing several players with the same score.
+ *
+ * <p>Entries are kept in an array sorted from the highest to the lowest score;
+ * among equal scores the entry added first comes first. Ranks follow standard
+ * competition ranking: a score ranks one place below the number of strictly
+ * higher scores, so tied scores share a rank. The board keeps the
+ * <code>capacity</code> best entries plus any entries tied with the last of
+ * them. Ranking is a binary search and adding an entry shifts the entries below
+ * it, so neither copies the board.</p>
+ */
+public class Leaderboard implements Serializable {
+
+	private static final long serialVersionUID = -3302297145046617346L;
+
+	private final int capacity;
+	private final List<LeaderboardEntry> entries = new ArrayList<>();
+
+	/**
+	 * Constructor for an empty leaderboard.
+	 * @param capacity Number of places on the leaderboard
+	 */
+	public Leaderboard(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("A leaderboard needs at least one place");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Getter method for the capacity.
+	 * @return Number of places on the leaderboard
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Getter method for the number of entries.
+	 * @return Number of entries, which exceeds the capacity only for ties on the last place
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Getter method for the entries.
+	 * @return Read only view of the entries, best score first
+	 */
+	public List<LeaderboardEntry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * Determines the rank a score would get.
+	 * @param score The score to rank
+	 * @return The rank, 1 for the best score, or 0 if the score does not make the leaderboard
+	 */
+	public int rank(int score) {
+		int higher = indexBelow(score, true);
+		if (higher >= capacity) {
+			return 0;
+		}
+		return higher + 1;
+	}
+
+	/**
+	 * Adds an entry if its score makes the leaderboard, dropping entries that no longer do.
+	 * @param entry The entry to add
+	 * @return The rank of the entry, or 0 if it was not added
+	 */
+	public int add(LeaderboardEntry entry) {
+		int rank = rank(entry.getScore());
+		if (rank == 0) {
+			return 0;
+		}
+		entries.add(indexBelow(entry.getScore(), false), entry);
+		if (entries.size() > capacity) {
+			int last = entries.get(capacity - 1).getScore();
+			while (entries.get(entries.size() - 1).getScore() < last) {
+				entries.remove(entries.size() - 1);
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Finds the first entry with a score below, or not above, a score.
+	 * @param score The score to compare with
+	 * @param inclusive Whether entries with an equal score count as below
+	 * @return Index of the first such entry, or the number of entries if there is none
+	 */
+	private int indexBelow(int score, boolean inclusive) {
+		int low = 0;
+		int high = entries.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int other = entries.get(middle).getScore();
+			if (other < score || (inclusive && other == score)) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+}
@@ -0,0 +1,93 @@
+package nl.tudelft.bejeweled.game;
+
+import java.io.Serializable;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * A single score on the {@link Leaderboard}.
+ * In the highscore file the score and name are stored as the key and value
+ * of an entry, the format used since the first version of the file. The time
+ * is in milliseconds since the epoch; entries from older files have time and
+ * seed 0.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+public class LeaderboardEntry implements Serializable {
+
+	private static final long serialVersionUID = 4190672334566239121L;
+
+	@XmlElement(name = "key")
+	private int score;
+
+	@XmlElement(name = "value")
+	private String name;
+
+	@XmlElement
+	private long time;
+
+	@XmlElement
+	private long seed;
+
+	/**
+	 * Empty constructor for unmarshalling.
+	 */
+	LeaderboardEntry() {
+	}
+
+	/**
+	 * Constructor for an entry without a time and seed.
+	 * @param score The score achieved
+	 * @param name Name of the player that achieved the score
+	 */
+	public LeaderboardEntry(int score, String name) {
+		this(score, name, 0, 0);
+	}
+
+	/**
+	 * Constructor for an entry.
+	 * @param score The score achieved
+	 * @param name Name of the player that achieved the score
+	 * @param time Time the score was achieved, in milliseconds since the epoch
+	 * @param seed Seed of the session in which the score was achieved
+	 */
+	public LeaderboardEntry(int score, String name, long time, long seed) {
+		this.score = score;
+		this.name = name;
+		this.time = time;
+		this.seed = seed;
+	}
+
+	/**
+	 * Getter method for the score.
+	 * @return The score achieved
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Getter method for the name.
+	 * @return Name of the player that achieved the score
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Getter method for the time.
+	 * @return Time the score was achieved, in milliseconds since the epoch
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Getter method for the seed.
+	 * @return Seed of the session in which the score was achieved
+	 */
+	public long getSeed() {
+		return seed;
+	}
+}
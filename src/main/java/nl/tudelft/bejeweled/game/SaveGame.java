@@ -0,0 +1,250 @@
+package nl.tudelft.bejeweled.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import nl.tudelft.bejeweled.board.BoardModel;
+
+/**
+ * Snapshot of a session, stored in a compact binary format.
+ *
+ * <p>A save game holds only what is needed to continue a session: the seed
+ * and state of its random source, the score, the level, the jewel type of
+ * every cell and two bitmasks marking the explosive and hyper jewels. It is
+ * written through a {@link ByteBuffer} as a magic number and format version,
+ * the fields in that order, and a CRC32 of everything before it, which takes
+ * 124 bytes for the 8 by 8 board. Loading rejects files of another format or
+ * version, files that do not match their checksum and files that do not hold
+ * a full board of the game's size, so a save game that decodes can always be
+ * resumed. Writing goes
+ * to a temporary file that is renamed over the save game, so a crash while
+ * saving leaves the previous save game intact.</p>
+ */
+public final class SaveGame {
+
+	/** Version of the format, increased whenever the layout changes. */
+	public static final int VERSION = 1;
+
+	private static final int MAGIC = 0x424A5347;
+	/** Size of the fields before the cell types. */
+	private static final int HEADER_SIZE = 6 * Integer.BYTES + 2 * Long.BYTES;
+	/** Size of the power up masks and checksum after the cell types. */
+	private static final int TRAILER_SIZE = 2 * Long.BYTES + Integer.BYTES;
+
+	private final long seed;
+	private final long randomState;
+	private final int score;
+	private final int level;
+	private final BoardModel model;
+
+	/**
+	 * Constructor for a save game.
+	 * @param seed The seed of the session
+	 * @param randomState The state of the random source of the session
+	 * @param score The score
+	 * @param level The level
+	 * @param model The types and power ups on the board, which is copied
+	 */
+	public SaveGame(long seed, long randomState, int score, int level, BoardModel model) {
+		this.seed = seed;
+		this.randomState = randomState;
+		this.score = score;
+		this.level = level;
+		this.model = new BoardModel(model);
+	}
+
+	/**
+	 * Getter method for the seed.
+	 * @return The seed of the session
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Getter method for the state of the random source.
+	 * @return The state from which the next jewel type is drawn
+	 */
+	public long getRandomState() {
+		return randomState;
+	}
+
+	/**
+	 * Getter method for the score.
+	 * @return The score
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Getter method for the level.
+	 * @return The level
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Getter method for the board.
+	 * @return A copy of the types and power ups on the board
+	 */
+	public BoardModel getModel() {
+		return new BoardModel(model);
+	}
+
+	/**
+	 * Encodes the save game.
+	 * @return Buffer holding the save game, ready to be written
+	 */
+	public ByteBuffer encode() {
+		ByteBuffer buffer = ByteBuffer.allocate(size());
+		buffer.putInt(MAGIC).putInt(VERSION).putLong(seed).putLong(randomState)
+				.putInt(score).putInt(level).putInt(model.getWidth()).putInt(model.getHeight());
+		long explosives = 0;
+		long hypers = 0;
+		for (int x = 0; x < model.getWidth(); x++) {
+			for (int y = 0; y < model.getHeight(); y++) {
+				buffer.put((byte) model.getType(x, y));
+				if (model.isExplosive(x, y)) {
+					explosives |= 1L << model.index(x, y);
+				}
+				if (model.isHyper(x, y)) {
+					hypers |= 1L << model.index(x, y);
+				}
+			}
+		}
+		buffer.putLong(explosives).putLong(hypers);
+		buffer.putInt(checksum(buffer.array(), buffer.position())).flip();
+		return buffer;
+	}
+
+	/**
+	 * Decodes a save game.
+	 * @param buffer Buffer holding exactly one save game
+	 * @return The save game
+	 * @throws IOException If the buffer holds no valid save game of this version
+	 */
+	public static SaveGame decode(ByteBuffer buffer) throws IOException {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		ByteBuffer in = ByteBuffer.wrap(bytes);
+		if (bytes.length < HEADER_SIZE + TRAILER_SIZE || in.getInt() != MAGIC) {
+			throw new IOException("Not a save game");
+		}
+		int version = in.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported save game version " + version);
+		}
+		int end = bytes.length - Integer.BYTES;
+		if (in.getInt(end) != checksum(bytes, end)) {
+			throw new IOException("Save game is damaged");
+		}
+		long seed = in.getLong();
+		long randomState = in.getLong();
+		int score = in.getInt();
+		int level = in.getInt();
+		int width = in.getInt();
+		int height = in.getInt();
+		int cells = bytes.length - HEADER_SIZE - TRAILER_SIZE;
+		if (width != BejeweledGame.GRID_WIDTH || height != BejeweledGame.GRID_HEIGHT
+				|| width * height != cells) {
+			throw new IOException("Save game has a wrong board size");
+		}
+		if (randomState == 0) {
+			throw new IOException("Save game has an invalid random state");
+		}
+		return new SaveGame(seed, randomState, score, level, readBoard(in, width, height));
+	}
+
+	/**
+	 * Decodes the cell types and power up masks.
+	 * @param in Buffer positioned at the first cell type
+	 * @param width Width of the board in squares
+	 * @param height Height of the board in squares
+	 * @return The board
+	 * @throws IOException If a cell is empty or holds an unknown jewel type
+	 */
+	private static BoardModel readBoard(ByteBuffer in, int width, int height) throws IOException {
+		BoardModel model = new BoardModel(width, height);
+		int masks = in.position() + width * height;
+		long explosives = in.getLong(masks);
+		long hypers = in.getLong(masks + Long.BYTES);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				int type = in.get();
+				if (type <= BoardModel.EMPTY || type > BoardModel.NUMBER_OF_JEWEL_TYPES) {
+					throw new IOException("Save game holds invalid jewel type " + type);
+				}
+				long cell = 1L << model.index(x, y);
+				int flags = 0;
+				if ((explosives & cell) != 0) {
+					flags |= BoardModel.EXPLOSIVE;
+				}
+				if ((hypers & cell) != 0) {
+					flags |= BoardModel.HYPER;
+				}
+				model.set(x, y, type, flags);
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * Getter method for the size of the encoded save game.
+	 * @return The number of bytes {@link #encode()} produces
+	 */
+	public int size() {
+		return HEADER_SIZE + model.getWidth() * model.getHeight() + TRAILER_SIZE;
+	}
+
+	/**
+	 * Writes the save game to a temporary file and moves it over the given file.
+	 * @param file The file to write to
+	 * @return The number of bytes written
+	 * @throws IOException If the file cannot be written
+	 */
+	public int write(Path file) throws IOException {
+		ByteBuffer buffer = encode();
+		int bytes = buffer.remaining();
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		return bytes;
+	}
+
+	/**
+	 * Reads a save game from a file.
+	 * @param file The file to read
+	 * @return The save game
+	 * @throws IOException If the file cannot be read or holds no valid save game
+	 */
+	public static SaveGame read(Path file) throws IOException {
+		return decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+	}
+
+	/**
+	 * Computes the checksum of the start of an array.
+	 * @param bytes The array
+	 * @param length Number of bytes to include
+	 * @return The CRC32 of the bytes
+	 */
+	private static int checksum(byte[] bytes, int length) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, length);
+		return (int) crc.getValue();
+	}
+}
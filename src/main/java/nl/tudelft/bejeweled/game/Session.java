@@ -16,6 +16,7 @@ import javafx.util.Duration;
 import nl.tudelft.bejeweled.board.Board;
 import nl.tudelft.bejeweled.board.BoardFactory;
 import nl.tudelft.bejeweled.board.BoardObserver;
+import nl.tudelft.bejeweled.board.JewelRandom;
 import nl.tudelft.bejeweled.logger.Logger;
 import nl.tudelft.bejeweled.sprite.SpriteStore;
 
@@ -41,6 +42,9 @@ public class Session implements Serializable, BoardObserver {
     private static final int TEXT_YPOS = 200;
    
 	private BoardFactory boardFactory;
+
+	/** Random source for all jewels of this session, saved along with it. */
+	private JewelRandom random;
 	
 	private int score;
 	private int level;
@@ -49,22 +53,39 @@ public class Session implements Serializable, BoardObserver {
 	
     private transient List<SessionObserver> observers;
 
+	/** Snapshot of the session taken when its board was last at rest. */
+	private transient SaveGame restingSaveGame;
+	/** Revision of the board model the resting snapshot was taken of. */
+	private transient long restingRevision;
+
 	/**
      * Constructor for the level manager.
      * @param spriteStore Managing class for all the sprites in the game.
      * @param sceneNodes The JavaFX group container for the Jewel Nodes.
      */
 	public Session(SpriteStore spriteStore, Group sceneNodes) {
+		this(spriteStore, sceneNodes, JewelRandom.newSeed());
+	}
+
+	/**
+     * Constructor for the level manager, replaying the game of a given seed.
+     * @param spriteStore Managing class for all the sprites in the game.
+     * @param sceneNodes The JavaFX group container for the Jewel Nodes.
+     * @param seed The seed from which all jewels of the session are drawn.
+     */
+	public Session(SpriteStore spriteStore, Group sceneNodes, long seed) {
 		this.sceneNodes = sceneNodes;
 		observers = new ArrayList<>();
 
-        
-		boardFactory = new BoardFactory(spriteStore);
+		random = new JewelRandom(seed);
+		Logger.logInfo("Session seed: {}", seed);
+		boardFactory = new BoardFactory(spriteStore, random);
 		setBoard(boardFactory.generateBoard(sceneNodes));
 		 // start observing the board for callback events
         board.addObserver(this);
         setScore(0);
 		setLevel(1);
+		keepRestingSaveGame();
     }
 	
 	/**
@@ -80,12 +101,63 @@ public class Session implements Serializable, BoardObserver {
 		observers = new ArrayList<>();
 
         
-		boardFactory = new BoardFactory(spriteStore);
+		random = new JewelRandom();
+		boardFactory = new BoardFactory(spriteStore, random);
 		setBoard(boardFactory.fromTextGenerateBoard(boardLocation, sceneNodes));
 		 // start observing the board for callback events
         board.addObserver(this);
         setScore(0);
 		setLevel(1);
+		keepRestingSaveGame();
+    }
+
+	/**
+     * Alternative constructor for the level manager, continuing a saved session.
+     * @param spriteStore Managing class for all the sprites in the game.
+     * @param sceneNodes The JavaFX group container for the Jewel Nodes.
+     * @param saveGame The saved session.
+     */
+	public Session(SpriteStore spriteStore, Group sceneNodes, SaveGame saveGame) {
+		this.sceneNodes = sceneNodes;
+		observers = new ArrayList<>();
+
+		random = new JewelRandom(saveGame.getSeed(), saveGame.getRandomState());
+		boardFactory = new BoardFactory(spriteStore, random);
+		setBoard(boardFactory.restoreBoard(saveGame.getModel(), sceneNodes));
+		 // start observing the board for callback events
+        board.addObserver(this);
+        setScore(saveGame.getScore());
+		setLevel(saveGame.getLevel());
+		keepRestingSaveGame();
+    }
+
+    /**
+     * Takes a snapshot of the session to save it.
+     * @return the save game holding the random source, score, level and board.
+     */
+    public SaveGame toSaveGame() {
+    	return new SaveGame(random.getSeed(), random.getState(), score, level, board.getModel());
+    }
+
+    /**
+     * Returns a snapshot of the session as it was when its board was last at
+     * rest. In the middle of a move or a level change the board has empty
+     * cells, so only this snapshot can be resumed.
+     * @return the save game of the last board at rest.
+     */
+    public SaveGame getRestingSaveGame() {
+    	if (board.isAtRest() && board.getModel().getRevision() != restingRevision) {
+    		keepRestingSaveGame();
+    	}
+    	return restingSaveGame;
+    }
+
+    /**
+     * Takes the snapshot returned by {@link #getRestingSaveGame()}.
+     */
+    private void keepRestingSaveGame() {
+    	restingSaveGame = toSaveGame();
+    	restingRevision = board.getModel().getRevision();
     }
 
     /**
@@ -151,6 +223,7 @@ public class Session implements Serializable, BoardObserver {
 	      }
 			displayText("LEVEL " + getLevel());
 		}
+		getRestingSaveGame();
 	}
 
 	/**
@@ -194,7 +267,7 @@ public class Session implements Serializable, BoardObserver {
 	 * @param text String to be shown
 	 */
 	public void displayText(String text) {
-        Logger.logInfo("Display: " + text);
+        Logger.logInfo("Display: {}", text);
 
 		final Label label = new Label(text);
 
@@ -249,6 +322,14 @@ public class Session implements Serializable, BoardObserver {
     	board.setLocked(false);
     }
 
+    /**
+     * Returns the seed the jewels of this session are drawn from.
+     * @return the seed of the session.
+     */
+    public long getSeed() {
+    	return random.getSeed();
+    }
+
     /**
      * Returns the current level.
      * @return the current level.
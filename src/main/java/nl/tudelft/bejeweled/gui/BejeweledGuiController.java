@@ -10,13 +10,12 @@ import javafx.scene.control.ListView;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 import nl.tudelft.bejeweled.game.Game;
+import nl.tudelft.bejeweled.game.LeaderboardEntry;
 
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.TreeMap;
 
 /**
  * Created by Jeroen on 3-9-2015.
@@ -59,15 +58,19 @@ public class BejeweledGuiController implements Initializable {
     
     /**
      * Populates the highscore list with highscores.
+     * Players with the same score share a place.
      */
     private void initializeListView() {
-    	TreeMap<Integer, String> highscores = game.getHighScores();
+    	List<LeaderboardEntry> highscores = game.getHighScores();
     	List<String> entries = new ArrayList<String>();
     	
-    	int counter = highscores.size();
-    	for (Map.Entry<Integer, String> entry : highscores.entrySet()) {
-    		entries.add(0, counter + ". " + entry.getValue() + ": " + entry.getKey());
-    		counter--;
+    	int place = 0;
+    	for (int i = 0; i < highscores.size(); i++) {
+    		LeaderboardEntry entry = highscores.get(i);
+    		if (i == 0 || entry.getScore() != highscores.get(i - 1).getScore()) {
+    			place = i + 1;
+    		}
+    		entries.add(place + ". " + entry.getName() + ": " + entry.getScore());
     	}
     	
     	highscoreList.getItems().setAll(entries);
@@ -7,6 +7,7 @@ import java.util.List;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import nl.tudelft.bejeweled.sprite.JewelSprite;
+import nl.tudelft.bejeweled.sprite.JewelSpritePool;
 
 /**
  * Created by Jeroen on 5-9-2015.
@@ -26,10 +27,27 @@ public class BasicJewel implements Jewel {
      * @param y The vertical position of this Jewel on the board grid (in pixels).
      */
     public BasicJewel(int type, int i, int j, int x, int y) {
+        this(type, i, j, x, y, null);
+    }
+
+    /**
+     * Constructor for Jewel class, taking its sprite from a pool.
+     * @param type The type of Jewel created.
+     * @param i The horizontal position of this Jewel on the board grid (in number of squares).
+     * @param j The vertical position of this Jewel on the board grid (in number of squares).
+     * @param x The horizontal position of this Jewel on the board grid (in pixels).
+     * @param y The vertical position of this Jewel on the board grid (in pixels).
+     * @param pool The pool providing the sprite, or null to create a new sprite.
+     */
+    public BasicJewel(int type, int i, int j, int x, int y, JewelSpritePool pool) {
         this.type = type;
         this.boardX = i;
         this.boardY = j;
-        this.sprite = new JewelSprite(type, x, y);
+        if (pool == null) {
+            this.sprite = new JewelSprite(type, x, y);
+        } else {
+            this.sprite = pool.acquire(type, x, y);
+        }
     }
 
     /**
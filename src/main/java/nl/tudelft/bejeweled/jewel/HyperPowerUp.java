@@ -1,6 +1,7 @@
 package nl.tudelft.bejeweled.jewel;
 
 import nl.tudelft.bejeweled.sprite.HyperSprite;
+import nl.tudelft.bejeweled.sprite.JewelSprite;
 
 /**
  * Power Up that adds Hyper capabilities to a Jewel.
@@ -15,8 +16,9 @@ public class HyperPowerUp extends JewelPowerUp {
 	 */
 	public HyperPowerUp(Jewel baseJewel) {
 		super(baseJewel);
-		baseJewel.setSprite(new HyperSprite(super.getSprite().getxPos(),
-											 super.getSprite().getyPos())); 
+		JewelSprite baseSprite = baseJewel.getSprite();
+		baseJewel.setSprite(new HyperSprite(baseSprite.getxPos(), baseSprite.getyPos()));
+		baseSprite.recycle();
 	}
 	
 	@Override
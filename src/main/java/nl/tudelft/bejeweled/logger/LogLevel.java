@@ -0,0 +1,34 @@
+package nl.tudelft.bejeweled.logger;
+
+/**
+ * Severity of a log message, from most to least severe.
+ * The {@link Logger} writes the messages at or above its configured level.
+ */
+public enum LogLevel {
+	/** Something failed. */
+	ERROR("ERROR "),
+	/** Something unexpected that the game recovered from. */
+	WARNING("WARNING "),
+	/** Normal events of the game. */
+	INFO("INFO "),
+	/** Detailed events, only useful when tracking down a problem. */
+	DEBUG("DEBUG ");
+
+	private final String label;
+
+	/**
+	 * Constructor for a level.
+	 * @param label Prefix of the lines of this level in the log file
+	 */
+	LogLevel(String label) {
+		this.label = label;
+	}
+
+	/**
+	 * Getter for the label.
+	 * @return Prefix of the lines of this level in the log file, including a trailing space
+	 */
+	public String getLabel() {
+		return label;
+	}
+}
@@ -0,0 +1,48 @@
+package nl.tudelft.bejeweled.logger;
+
+/**
+ * A single entry for the log file, waiting to be written.
+ * Records are immutable, so they can be handed to the writer thread as is.
+ */
+final class LogRecord {
+
+	private final String type;
+	private final long timestamp;
+	private final String message;
+
+	/**
+	 * Constructor for a log record.
+	 * @param type Type of the message, including its trailing space
+	 * @param timestamp Time of logging in milliseconds since the epoch
+	 * @param message Message text
+	 */
+	LogRecord(String type, long timestamp, String message) {
+		this.type = type;
+		this.timestamp = timestamp;
+		this.message = message;
+	}
+
+	/**
+	 * Getter for the type.
+	 * @return Type of the message
+	 */
+	String getType() {
+		return type;
+	}
+
+	/**
+	 * Getter for the timestamp.
+	 * @return Time of logging in milliseconds since the epoch
+	 */
+	long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Getter for the message.
+	 * @return Message text
+	 */
+	String getMessage() {
+		return message;
+	}
+}
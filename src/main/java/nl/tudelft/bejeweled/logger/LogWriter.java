@@ -0,0 +1,120 @@
+package nl.tudelft.bejeweled.logger;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background thread writing the records of a {@link RingBuffer} to a {@link RollingFile}.
+ *
+ * <p>The writer drains the buffer in batches and only flushes the file when
+ * the buffer has run empty, so formatting and file IO never happen on the
+ * threads that log. When there is nothing to write it parks for a short
+ * while.</p>
+ */
+final class LogWriter implements Runnable {
+
+	/** Maximum number of records written between two flushes. */
+	private static final int BATCH_SIZE = 256;
+
+	/** Time to wait for new records when the buffer is empty. */
+	private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter
+			.ofPattern("MM-dd-yyyy_HH-mm-ss.SSS").withZone(ZoneId.systemDefault());
+
+	private final RingBuffer<LogRecord> buffer;
+	private final RollingFile out;
+	private final AtomicLong dropped;
+	private final Thread thread;
+	private volatile boolean running = true;
+
+	/**
+	 * Creates and starts a writer.
+	 * @param buffer The buffer to drain
+	 * @param out The log file to write to, closed when the writer stops
+	 * @param dropped Counter of records the loggers dropped because the buffer was full
+	 */
+	LogWriter(RingBuffer<LogRecord> buffer, RollingFile out, AtomicLong dropped) {
+		this.buffer = buffer;
+		this.out = out;
+		this.dropped = dropped;
+		this.thread = new Thread(this, "logger-writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Formats a record as a line of the log file.
+	 * @param record The record
+	 * @return The line, without line separator
+	 */
+	static String format(LogRecord record) {
+		return record.getType() + FORMATTER.format(Instant.ofEpochMilli(record.getTimestamp()))
+				+ ": " + record.getMessage();
+	}
+
+	@Override
+	public void run() {
+		while (running) {
+			if (writeBatch() == 0) {
+				out.flush();
+				LockSupport.parkNanos(this, IDLE_NANOS);
+			}
+		}
+		int written = writeBatch();
+		while (written > 0) {
+			written = writeBatch();
+		}
+		out.close();
+	}
+
+	/**
+	 * Writes the next batch of records, reporting records dropped before them.
+	 * @return The number of records written
+	 */
+	private int writeBatch() {
+		long lost = dropped.getAndSet(0);
+		if (lost > 0) {
+			write(new LogRecord(LogLevel.WARNING.getLabel(), System.currentTimeMillis(),
+					"dropped " + lost + " log records, the log buffer was full"));
+		}
+		return buffer.drain(this::write, BATCH_SIZE);
+	}
+
+	/**
+	 * Writes a single record to the file.
+	 * @param record The record
+	 */
+	private void write(LogRecord record) {
+		try {
+			out.println(format(record));
+		} catch (IOException e) {
+			System.err.println("Could not roll over the log file: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Wakes the writer, so records are written without waiting for the idle timeout.
+	 */
+	void wake() {
+		LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Writes all records still in the buffer, closes the file and waits for the thread to end.
+	 */
+	void stop() {
+		running = false;
+		wake();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -1,31 +1,66 @@
 package nl.tudelft.bejeweled.logger;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.Format;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 /**
  * Class to log all events throughout runtime of the game. This logger can be enabled
  * by appending a "-logging enabled" in the commandline.  
  * 
+ * <p>Logging a message only puts a record in a bounded lock-free ring buffer; a
+ * background thread formats the records and writes them to the file in batches.
+ * What happens when the buffer is full is decided by the {@link OverflowPolicy}.
+ * The file is rolled over when it gets too big or too old, and old files are
+ * compressed and pruned in the background, see {@link RollingFile}.</p>
+ * 
+ * <p>Messages below the configured {@link LogLevel} are filtered out. The
+ * parameterized and {@link Supplier} variants only build their message when it
+ * passes the filter, so a disabled or filtered call costs a single comparison.
+ * Use them on paths that run on every move.</p>
+ *
  * @author janharms
  *
  */
 public final class Logger {
+
+	/** Placeholder replaced by an argument in parameterized messages. */
+	private static final String PLACEHOLDER = "{}";
+	
+	/** Number of records the buffer holds by default. */
+	public static final int DEFAULT_CAPACITY = 8192;
+	
+	/** Time a blocked logging thread waits before trying again. */
+	private static final long BLOCK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
 	
-	private static final String INFO = "INFO ";
-	private static final String ERROR = "ERROR ";
-	private static final String WARNING = "WARNING ";
+	/** Directory holding the log files by default. */
+	public static final Path DEFAULT_DIRECTORY = Paths.get("log");
 	
-	private static PrintWriter logFile;
-	private static Format formatter;
-	private static String filePath;
-	private static boolean enabled;
+	/** Size after which the log file is rolled over by default, in bytes. */
+	public static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+	
+	/** Age after which the log file is rolled over by default, in milliseconds. */
+	public static final long DEFAULT_MAX_AGE = TimeUnit.HOURS.toMillis(1);
+	
+	/** Number of closed log files kept by default. */
+	public static final int DEFAULT_MAX_ARCHIVES = 10;
+	
+	private static volatile RollingFile file;
+	private static long maxBytes = DEFAULT_MAX_BYTES;
+	private static long maxAgeMillis = DEFAULT_MAX_AGE;
+	private static int maxArchives = DEFAULT_MAX_ARCHIVES;
+	private static volatile boolean enabled;
+	private static LogLevel level = LogLevel.INFO;
+	/** Ordinal of the least severe level written, or -1 while logging is disabled. */
+	private static volatile int threshold = -1;
+	private static volatile RingBuffer<LogRecord> buffer;
+	private static volatile LogWriter writer;
+	private static OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+	private static final AtomicLong DROPPED = new AtomicLong();
 	
 	/**
 	 * Empty private constructor.
@@ -33,28 +68,56 @@ public final class Logger {
 	private Logger() { };
 	
 	/**
-	 * Creates a new file with a time stamp in it's name.
+	 * Creates a new file with a time stamp in it's name, dropping records
+	 * when the buffer is full.
 	 */
 	public static void enable() {
+		enable(DEFAULT_DIRECTORY);
+	}
+	
+	/**
+	 * Creates a new file with a time stamp in it's name in a directory,
+	 * dropping records when the buffer is full.
+	 * 
+	 * @param directory Directory holding the log files
+	 */
+	public static void enable(Path directory) {
+		enable(directory, OverflowPolicy.DROP, DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Creates a new file with a time stamp in it's name and starts the writer.
+	 * 
+	 * @param policy What to do with records when the buffer is full
+	 * @param capacity Number of records the buffer holds
+	 */
+	public static void enable(OverflowPolicy policy, int capacity) {
+		enable(DEFAULT_DIRECTORY, policy, capacity);
+	}
+	
+	/**
+	 * Creates a new file with a time stamp in it's name in a directory and
+	 * starts the writer.
+	 * 
+	 * @param directory Directory holding the log files
+	 * @param policy What to do with records when the buffer is full
+	 * @param capacity Number of records the buffer holds
+	 */
+	public static synchronized void enable(Path directory, OverflowPolicy policy,
+			int capacity) {
 		
 		if (enabled) {
 			return;
 		}
 		
-		enabled = true;
-		
-		formatter = new SimpleDateFormat("MM-dd-yyyy_HH-mm-ss.SSS");
-		filePath = "log/LogFile_" + formatter.format(Calendar.getInstance().getTime()) + ".txt";
-		File file = new File(filePath);
-		
 		try {
-			if (!file.exists()) {
-				if (!file.createNewFile()) {
-					System.err.println("Could not create file");
-					return;
-				}
-			}
-			logFile = new PrintWriter(file, "UTF-8");
+			file = new RollingFile(directory.toFile(), maxBytes, maxAgeMillis, maxArchives);
+			overflowPolicy = policy;
+			buffer = new RingBuffer<>(capacity);
+			DROPPED.set(0);
+			writer = new LogWriter(buffer, file, DROPPED);
+			enabled = true;
+			threshold = level.ordinal();
 			logInfo("enabled logging");
 		} catch	(IOException ex) {
 			System.err.println("IOException caught: " + ex.getMessage());
@@ -63,18 +126,57 @@ public final class Logger {
 	}
 	
 	/**
-	 * Disables logging of the game.
+	 * Disables logging of the game. Records still in the buffer are written
+	 * and the file is closed before this method returns.
 	 */
-	public static void disable() {
+	public static synchronized void disable() {
 		
 		if (enabled) {
 			logInfo("disabled logging");
-			logFile.close();
+			threshold = -1;
 			enabled = false;
+			writer.stop();
 		}
 		
 	}
 	
+	/**
+	 * Sets when the log file is rolled over and how many closed log files, of
+	 * this run and earlier ones, are kept. Takes effect the next time logging
+	 * is enabled.
+	 * 
+	 * @param bytes Size after which the log file is rolled over
+	 * @param ageMillis Age in milliseconds after which the log file is rolled over
+	 * @param archives Number of closed log files to keep
+	 */
+	public static synchronized void setRotation(long bytes, long ageMillis, int archives) {
+		maxBytes = bytes;
+		maxAgeMillis = ageMillis;
+		maxArchives = archives;
+	}
+	
+	/**
+	 * Sets the least severe level that is written to the log file.
+	 * 
+	 * @param minimum The level, INFO by default
+	 */
+	public static synchronized void setLevel(LogLevel minimum) {
+		level = minimum;
+		if (enabled) {
+			threshold = minimum.ordinal();
+		}
+	}
+	
+	/**
+	 * Checks whether messages of a level are written.
+	 * 
+	 * @param messageLevel Level of the message
+	 * @return true if logging is enabled and the level passes the filter
+	 */
+	public static boolean isEnabled(LogLevel messageLevel) {
+		return messageLevel.ordinal() <= threshold;
+	}
+	
 	/**
 	 * Base function to create an entry in the log file.
 	 * 
@@ -84,28 +186,144 @@ public final class Logger {
 	public static void log(String type, String message) {
 		
 		if (enabled) {
-			logFile.println(type + formatter.format(Calendar.getInstance().getTime()) 
-			+ ": " + message);
+			enqueue(new LogRecord(type, System.currentTimeMillis(), message));
 		}
 		
 	}
 	
+	/**
+	 * Creates an entry of a level in the log file.
+	 * 
+	 * @param messageLevel Level of the message
+	 * @param message Message text
+	 */
+	public static void log(LogLevel messageLevel, String message) {
+		if (isEnabled(messageLevel)) {
+			enqueue(new LogRecord(messageLevel.getLabel(), System.currentTimeMillis(), message));
+		}
+	}
+	
+	/**
+	 * Creates an entry of a level, replacing the first {} in the pattern by an argument.
+	 * 
+	 * @param messageLevel Level of the message
+	 * @param pattern Message text with a placeholder
+	 * @param arg Argument, converted with {@link String#valueOf(Object)}
+	 */
+	public static void log(LogLevel messageLevel, String pattern, Object arg) {
+		if (isEnabled(messageLevel)) {
+			log(messageLevel, format(pattern, arg, null, 1));
+		}
+	}
+	
+	/**
+	 * Creates an entry of a level, replacing the first two {} in the pattern by arguments.
+	 * 
+	 * @param messageLevel Level of the message
+	 * @param pattern Message text with placeholders
+	 * @param arg1 First argument
+	 * @param arg2 Second argument
+	 */
+	public static void log(LogLevel messageLevel, String pattern, Object arg1, Object arg2) {
+		if (isEnabled(messageLevel)) {
+			log(messageLevel, format(pattern, arg1, arg2, 2));
+		}
+	}
+	
+	/**
+	 * Creates an entry of a level with a message that is only built when it is written.
+	 * 
+	 * @param messageLevel Level of the message
+	 * @param message Supplies the message text
+	 */
+	public static void log(LogLevel messageLevel, Supplier<String> message) {
+		if (isEnabled(messageLevel)) {
+			log(messageLevel, message.get());
+		}
+	}
+	
+	/**
+	 * Replaces the placeholders of a pattern by arguments, from left to right.
+	 * Placeholders without an argument are left as they are.
+	 * 
+	 * @param pattern Message text with placeholders
+	 * @param arg1 First argument
+	 * @param arg2 Second argument
+	 * @param count Number of arguments used
+	 * @return The message text
+	 */
+	static String format(String pattern, Object arg1, Object arg2, int count) {
+		StringBuilder message = new StringBuilder(pattern.length() + PLACEHOLDER.length() * 2);
+		int start = 0;
+		for (int i = 0; i < count; i++) {
+			int found = pattern.indexOf(PLACEHOLDER, start);
+			if (found < 0) {
+				break;
+			}
+			Object arg = arg1;
+			if (i > 0) {
+				arg = arg2;
+			}
+			message.append(pattern, start, found).append(arg);
+			start = found + PLACEHOLDER.length();
+		}
+		return message.append(pattern, start, pattern.length()).toString();
+	}
+	
+	/**
+	 * Hands a record to the writer, applying the overflow policy when the buffer is full.
+	 * 
+	 * @param record The record to write
+	 */
+	private static void enqueue(LogRecord record) {
+		RingBuffer<LogRecord> current = buffer;
+		while (!current.offer(record)) {
+			if (overflowPolicy == OverflowPolicy.DROP || !enabled) {
+				DROPPED.incrementAndGet();
+				return;
+			}
+			writer.wake();
+			LockSupport.parkNanos(BLOCK_NANOS);
+		}
+	}
+	
 	/**
 	 * Creates an INFO entry in the logFile.
 	 * 
 	 * @param message Message to save in the log
 	 */
 	public static void logInfo(String message) {
-		log(INFO, message);
+		log(LogLevel.INFO, message);
 	}
 	
 	/**
-	 * Creates an ERROR entry in the logFile.
+	 * Creates an INFO entry in the logFile, replacing {} in the pattern by an argument.
 	 * 
-	 * @param message Message text
+	 * @param pattern Message text with a placeholder
+	 * @param arg Argument of the message
 	 */
-	public static void logError(String message) {
-		log(ERROR, message);
+	public static void logInfo(String pattern, Object arg) {
+		log(LogLevel.INFO, pattern, arg);
+	}
+	
+	/**
+	 * Creates an INFO entry in the logFile, replacing two {} in the pattern by arguments.
+	 * 
+	 * @param pattern Message text with placeholders
+	 * @param arg1 First argument of the message
+	 * @param arg2 Second argument of the message
+	 */
+	public static void logInfo(String pattern, Object arg1, Object arg2) {
+		log(LogLevel.INFO, pattern, arg1, arg2);
+	}
+	
+	/**
+	 * Creates an INFO entry in the logFile with a message built only when it is written.
+	 * 
+	 * @param message Supplies the message to save in the log
+	 */
+	public static void logInfo(Supplier<String> message) {
+		log(LogLevel.INFO, message);
 	}
 	
 	/**
@@ -114,15 +332,123 @@ public final class Logger {
 	 * @param message Message to save in the log
 	 */
 	public static void logWarning(String message) {
-		log(WARNING, message);
+		log(LogLevel.WARNING, message);
+	}
+	
+	/**
+	 * Creates a WARNING entry in the logFile, replacing {} in the pattern by an argument.
+	 * 
+	 * @param pattern Message text with a placeholder
+	 * @param arg Argument of the message
+	 */
+	public static void logWarning(String pattern, Object arg) {
+		log(LogLevel.WARNING, pattern, arg);
+	}
+	
+	/**
+	 * Creates a WARNING entry in the logFile, replacing two {} in the pattern by arguments.
+	 * 
+	 * @param pattern Message text with placeholders
+	 * @param arg1 First argument of the message
+	 * @param arg2 Second argument of the message
+	 */
+	public static void logWarning(String pattern, Object arg1, Object arg2) {
+		log(LogLevel.WARNING, pattern, arg1, arg2);
+	}
+	
+	/**
+	 * Creates a WARNING entry in the logFile with a message built only when it is written.
+	 * 
+	 * @param message Supplies the message to save in the log
+	 */
+	public static void logWarning(Supplier<String> message) {
+		log(LogLevel.WARNING, message);
+	}
+	
+	/**
+	 * Creates an ERROR entry in the logFile.
+	 * 
+	 * @param message Message to save in the log
+	 */
+	public static void logError(String message) {
+		log(LogLevel.ERROR, message);
+	}
+	
+	/**
+	 * Creates an ERROR entry in the logFile, replacing {} in the pattern by an argument.
+	 * 
+	 * @param pattern Message text with a placeholder
+	 * @param arg Argument of the message
+	 */
+	public static void logError(String pattern, Object arg) {
+		log(LogLevel.ERROR, pattern, arg);
+	}
+	
+	/**
+	 * Creates an ERROR entry in the logFile, replacing two {} in the pattern by arguments.
+	 * 
+	 * @param pattern Message text with placeholders
+	 * @param arg1 First argument of the message
+	 * @param arg2 Second argument of the message
+	 */
+	public static void logError(String pattern, Object arg1, Object arg2) {
+		log(LogLevel.ERROR, pattern, arg1, arg2);
+	}
+	
+	/**
+	 * Creates an ERROR entry in the logFile with a message built only when it is written.
+	 * 
+	 * @param message Supplies the message to save in the log
+	 */
+	public static void logError(Supplier<String> message) {
+		log(LogLevel.ERROR, message);
+	}
+	
+	/**
+	 * Creates a DEBUG entry in the logFile.
+	 * 
+	 * @param message Message to save in the log
+	 */
+	public static void logDebug(String message) {
+		log(LogLevel.DEBUG, message);
+	}
+	
+	/**
+	 * Creates a DEBUG entry in the logFile, replacing {} in the pattern by an argument.
+	 * 
+	 * @param pattern Message text with a placeholder
+	 * @param arg Argument of the message
+	 */
+	public static void logDebug(String pattern, Object arg) {
+		log(LogLevel.DEBUG, pattern, arg);
+	}
+	
+	/**
+	 * Creates a DEBUG entry in the logFile, replacing two {} in the pattern by arguments.
+	 * 
+	 * @param pattern Message text with placeholders
+	 * @param arg1 First argument of the message
+	 * @param arg2 Second argument of the message
+	 */
+	public static void logDebug(String pattern, Object arg1, Object arg2) {
+		log(LogLevel.DEBUG, pattern, arg1, arg2);
+	}
+	
+	/**
+	 * Creates a DEBUG entry in the logFile with a message built only when it is written.
+	 * 
+	 * @param message Supplies the message to save in the log
+	 */
+	public static void logDebug(Supplier<String> message) {
+		log(LogLevel.DEBUG, message);
 	}
 	
 	/**
-	 * Get the path to the opened logFile.
+	 * Get the path to the opened logFile. The path changes when the file is rolled over.
 	 * 
 	 * @return Path to the current log file
 	 */
 	public static Path getLogFilePath() {
-		return Paths.get(filePath);
+		return file.getPath();
 	}
 }
@@ -0,0 +1,11 @@
+package nl.tudelft.bejeweled.logger;
+
+/**
+ * What the {@link Logger} does with a record when its buffer is full.
+ */
+public enum OverflowPolicy {
+	/** Drop the record; the number of dropped records is logged later. */
+	DROP,
+	/** Wait until the writer has made room, slowing down the logging thread. */
+	BLOCK
+}
@@ -0,0 +1,112 @@
+package nl.tudelft.bejeweled.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * <p>Every slot carries a sequence number telling whether it is free for
+ * the producer claiming position <code>n</code> (sequence <code>n</code>)
+ * or holds the element of that position (sequence <code>n + 1</code>).
+ * Producers claim a position with a single compare-and-set on the tail, so
+ * offering never blocks and never allocates. Only one thread may poll.</p>
+ *
+ * @param <T> Type of the elements
+ */
+final class RingBuffer<T> {
+
+	private final int mask;
+	private final AtomicReferenceArray<T> elements;
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+
+	/** Next position to poll, only used by the consumer. */
+	private long head;
+
+	/**
+	 * Creates an empty ring buffer.
+	 * @param capacity Maximum number of elements, rounded up to a power of two
+	 */
+	RingBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+		this.mask = size - 1;
+		this.elements = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Getter for the capacity.
+	 * @return Maximum number of elements in the buffer
+	 */
+	int capacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Adds an element if there is room. Safe to call from any thread.
+	 * @param element The element to add
+	 * @return true if the element was added, false if the buffer is full
+	 */
+	boolean offer(T element) {
+		long position = tail.get();
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					elements.lazySet(index, element);
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Removes the oldest element. Only the consumer thread may call this.
+	 * @return The element, or null if the buffer is empty
+	 */
+	T poll() {
+		int index = (int) head & mask;
+		if (sequences.get(index) != head + 1) {
+			return null;
+		}
+		T element = elements.get(index);
+		elements.lazySet(index, null);
+		sequences.lazySet(index, head + capacity());
+		head++;
+		return element;
+	}
+
+	/**
+	 * Removes up to a number of elements and passes them on in order.
+	 * Only the consumer thread may call this.
+	 * @param consumer Receives the removed elements
+	 * @param limit Maximum number of elements to remove
+	 * @return The number of elements removed
+	 */
+	int drain(Consumer<T> consumer, int limit) {
+		int count = 0;
+		T element = poll();
+		while (element != null) {
+			consumer.accept(element);
+			count++;
+			if (count == limit) {
+				break;
+			}
+			element = poll();
+		}
+		return count;
+	}
+}
@@ -0,0 +1,197 @@
+package nl.tudelft.bejeweled.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log file that rolls over to a new segment when it grows too big or too old.
+ *
+ * <p>Segments are named <code>LogFile_&lt;timestamp&gt;.txt</code> after the
+ * time they were opened. A segment that is rolled over is compressed to a
+ * <code>.txt.gz</code> archive on a background thread. The segment open at
+ * shutdown, and segments of earlier runs, are left uncompressed. All closed
+ * log files in the directory count towards retention, plain or compressed and
+ * whichever run wrote them: when a rolling file opens and after every roll
+ * over, the oldest closed log files beyond the limit are deleted. Only the
+ * thread writing the log may use this class.</p>
+ */
+final class RollingFile {
+
+	private static final String PREFIX = "LogFile_";
+	private static final String SUFFIX = ".txt";
+	private static final String ARCHIVE_SUFFIX = ".gz";
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private static final DateTimeFormatter NAME_FORMATTER = DateTimeFormatter
+			.ofPattern("MM-dd-yyyy_HH-mm-ss.SSS").withZone(ZoneId.systemDefault());
+
+	/** Compresses and prunes archives for all rolling files. */
+	private static final ExecutorService COMPRESSOR = Executors.newSingleThreadExecutor((task) -> {
+		Thread thread = new Thread(task, "log-compressor");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final File directory;
+	private final long maxBytes;
+	private final long maxAgeMillis;
+	private final int maxArchives;
+
+	private PrintWriter out;
+	private volatile Path path;
+	private long bytes;
+	private long openedAt;
+
+	/**
+	 * Opens the first segment. The directory is created if it does not exist.
+	 * @param directory Directory holding the segments and archives
+	 * @param maxBytes Size after which a segment is rolled over, approximately
+	 * @param maxAgeMillis Age after which a segment is rolled over
+	 * @param maxArchives Number of closed log files to keep
+	 * @throws IOException If the first segment cannot be created
+	 */
+	RollingFile(File directory, long maxBytes, long maxAgeMillis, int maxArchives)
+			throws IOException {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		this.maxAgeMillis = maxAgeMillis;
+		this.maxArchives = maxArchives;
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create " + directory);
+		}
+		open();
+		COMPRESSOR.execute(this::prune);
+	}
+
+	/**
+	 * Getter for the current segment.
+	 * @return Path of the segment being written
+	 */
+	Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Writes a line, rolling over to a new segment first when the current one is full.
+	 * @param line The line, without line separator
+	 * @throws IOException If a new segment cannot be created
+	 */
+	void println(String line) throws IOException {
+		if (bytes >= maxBytes || System.currentTimeMillis() - openedAt >= maxAgeMillis) {
+			roll();
+		}
+		out.println(line);
+		bytes += line.length() + System.lineSeparator().length();
+	}
+
+	/**
+	 * Flushes the current segment.
+	 */
+	void flush() {
+		out.flush();
+	}
+
+	/**
+	 * Closes the current segment, which is left uncompressed.
+	 */
+	void close() {
+		out.close();
+	}
+
+	/**
+	 * Closes the current segment, archives it and opens a new one.
+	 * @throws IOException If the new segment cannot be created
+	 */
+	void roll() throws IOException {
+		Path full = path;
+		out.close();
+		open();
+		archive(full);
+	}
+
+	/**
+	 * Creates a new segment named after the current time.
+	 * @throws IOException If the segment cannot be created
+	 */
+	private void open() throws IOException {
+		openedAt = System.currentTimeMillis();
+		String name = PREFIX + NAME_FORMATTER.format(Instant.ofEpochMilli(openedAt));
+		File file = new File(directory, name + SUFFIX);
+		for (int i = 1; !file.createNewFile(); i++) {
+			file = new File(directory, name + "-" + i + SUFFIX);
+		}
+		out = new PrintWriter(file, "UTF-8");
+		path = file.toPath();
+		bytes = 0;
+	}
+
+	/**
+	 * Compresses a closed segment and prunes old archives, in the background.
+	 * @param segment The segment to compress
+	 */
+	private void archive(Path segment) {
+		COMPRESSOR.execute(() -> {
+			try {
+				compress(segment);
+			} catch (IOException e) {
+				System.err.println("Could not compress " + segment + ": " + e.getMessage());
+			}
+			prune();
+		});
+	}
+
+	/**
+	 * Compresses a file to a gzip archive next to it and deletes the original.
+	 * The archive only gets its final name once it is complete.
+	 * @param segment The file to compress
+	 * @throws IOException If compressing fails
+	 */
+	static void compress(Path segment) throws IOException {
+		Path archive = segment.resolveSibling(segment.getFileName() + ARCHIVE_SUFFIX);
+		Path partial = segment.resolveSibling(archive.getFileName() + ".tmp");
+		try (InputStream in = Files.newInputStream(segment);
+				OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(partial))) {
+			byte[] chunk = new byte[CHUNK_SIZE];
+			for (int read = in.read(chunk); read >= 0; read = in.read(chunk)) {
+				gzip.write(chunk, 0, read);
+			}
+		}
+		Files.move(partial, archive, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		Files.delete(segment);
+	}
+
+	/**
+	 * Deletes the oldest closed log files beyond the retention limit. The
+	 * segment being written is never deleted.
+	 */
+	private void prune() {
+		File current = path.toFile();
+		File[] closed = directory.listFiles((dir, name) -> name.startsWith(PREFIX)
+				&& (name.endsWith(SUFFIX) || name.endsWith(SUFFIX + ARCHIVE_SUFFIX))
+				&& !new File(dir, name).equals(current));
+		if (closed == null || closed.length <= maxArchives) {
+			return;
+		}
+		Arrays.sort(closed, Comparator.comparingLong(File::lastModified).reversed());
+		for (int i = maxArchives; i < closed.length; i++) {
+			if (!closed[i].delete()) {
+				System.err.println("Could not delete " + closed[i]);
+			}
+		}
+	}
+}
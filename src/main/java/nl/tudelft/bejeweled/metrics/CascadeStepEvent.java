@@ -0,0 +1,64 @@
+package nl.tudelft.bejeweled.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for playing back part of a cascade step.
+ * A step is played in two parts: the removal of its jewels and, once they
+ * are gone, the falling and refilling of the board.
+ */
+@Name("nl.tudelft.bejeweled.CascadeStep")
+@Label("Cascade Step")
+@Category({"Bejeweled", "Board"})
+@Description("Part of a cascade step played back by the board")
+@StackTrace(false)
+public class CascadeStepEvent extends Event {
+
+    /** Value of the part field for the removal of jewels. */
+    public static final String REMOVAL = "removal";
+
+    /** Value of the part field for falling and refilling. */
+    public static final String DROPS = "drops";
+
+    @Label("Part")
+    private String part;
+
+    @Label("Removed Jewels")
+    @Description("Jewels removed in combos")
+    private int removed;
+
+    @Label("Blasted Jewels")
+    @Description("Jewels removed by explosions only")
+    private int blasted;
+
+    @Label("Refills")
+    private int refills;
+
+    @Label("Remaining Steps")
+    private int remaining;
+
+    /**
+     * Ends the event and commits it to the recording.
+     * @param stepPart {@link #REMOVAL} or {@link #DROPS}.
+     * @param removedJewels Number of jewels removed in combos.
+     * @param blastedJewels Number of jewels removed by explosions only.
+     * @param refilledJewels Number of jewels added at the top of the board.
+     * @param remainingSteps Number of steps of the cascade still to be played.
+     */
+    public void commit(String stepPart, int removedJewels, int blastedJewels,
+            int refilledJewels, int remainingSteps) {
+        if (shouldCommit()) {
+            part = stepPart;
+            removed = removedJewels;
+            blasted = blastedJewels;
+            refills = refilledJewels;
+            remaining = remainingSteps;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package nl.tudelft.bejeweled.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import nl.tudelft.bejeweled.logger.LogLevel;
+import nl.tudelft.bejeweled.logger.Logger;
+
+/**
+ * Collects timings and counters of the running game.
+ *
+ * <p>Every phase of the game loop is timed into a {@link Histogram}, and the
+ * game logic counts the events it plays back. A report with the percentiles
+ * of each phase and the counter totals can be dumped to the log or to a file
+ * at any time, so frame hitches can be found without attaching a profiler.
+ * Like the {@link Logger} the metrics are global; they are meant to be used
+ * from the JavaFX Application Thread only.</p>
+ */
+public final class GameMetrics {
+
+    /**
+     * Timed parts of the game loop.
+     */
+    public enum Phase {
+        /** Update of the game logic. */
+        LOGIC,
+        /** Update of the moving sprites. */
+        SPRITES,
+        /** Removal of dead sprites. */
+        CLEANUP,
+        /** A whole logic step. */
+        STEP,
+        /** Rendering of a frame. */
+        RENDER,
+        /** Time between two frames. */
+        FRAME
+    }
+
+    /**
+     * Sampled sizes, recorded once per logic step.
+     */
+    public enum Gauge {
+        /** Number of sprites in the store. */
+        SPRITES,
+        /** Number of sprites that are moving. */
+        ACTIVE_SPRITES
+    }
+
+    /**
+     * Counted game events.
+     */
+    public enum Counter {
+        /** Swaps made by the player. */
+        SWAPS,
+        /** Jewels removed in combos. */
+        COMBO_JEWELS,
+        /** Swaps that started a cascade. */
+        CASCADES,
+        /** Rounds of combos within cascades. */
+        CASCADE_STEPS,
+        /** Jewels added to refill the board. */
+        REFILLS
+    }
+
+    private static final double NANOS_PER_MICRO = 1000.0;
+    private static final double P50 = 50;
+    private static final double P99 = 99;
+
+    private static final Map<Phase, Histogram> TIMINGS = new EnumMap<>(Phase.class);
+    private static final Map<Gauge, Histogram> GAUGES = new EnumMap<>(Gauge.class);
+    private static final long[] COUNTERS = new long[Counter.values().length];
+
+    static {
+        for (Phase phase : Phase.values()) {
+            TIMINGS.put(phase, new Histogram());
+        }
+        for (Gauge gauge : Gauge.values()) {
+            GAUGES.put(gauge, new Histogram());
+        }
+    }
+
+    /**
+     * Empty private constructor.
+     */
+    private GameMetrics() { }
+
+    /**
+     * Records the duration of a phase.
+     * @param phase The timed phase.
+     * @param nanos The duration in nanoseconds.
+     */
+    public static void time(Phase phase, long nanos) {
+        TIMINGS.get(phase).record(nanos);
+    }
+
+    /**
+     * Records a sample of a size.
+     * @param gauge The sampled size.
+     * @param value The current value.
+     */
+    public static void sample(Gauge gauge, long value) {
+        GAUGES.get(gauge).record(value);
+    }
+
+    /**
+     * Adds to a counter.
+     * @param counter The counter.
+     * @param amount The amount to add.
+     */
+    public static void count(Counter counter, long amount) {
+        COUNTERS[counter.ordinal()] += amount;
+    }
+
+    /**
+     * Getter method for the timings of a phase.
+     * @param phase The timed phase.
+     * @return Histogram of the durations in nanoseconds.
+     */
+    public static Histogram getTimings(Phase phase) {
+        return TIMINGS.get(phase);
+    }
+
+    /**
+     * Getter method for the samples of a size.
+     * @param gauge The sampled size.
+     * @return Histogram of the samples.
+     */
+    public static Histogram getSamples(Gauge gauge) {
+        return GAUGES.get(gauge);
+    }
+
+    /**
+     * Getter method for a counter.
+     * @param counter The counter.
+     * @return The total counted since the last reset.
+     */
+    public static long getCount(Counter counter) {
+        return COUNTERS[counter.ordinal()];
+    }
+
+    /**
+     * Clears all timings, samples and counters.
+     */
+    public static void reset() {
+        TIMINGS.values().forEach(Histogram::reset);
+        GAUGES.values().forEach(Histogram::reset);
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = 0;
+        }
+    }
+
+    /**
+     * Formats a report of all metrics, one line per metric.
+     * Timings are reported in microseconds.
+     * @return The report.
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            Histogram timings = TIMINGS.get(phase);
+            report.append(String.format(Locale.ROOT,
+                    "%s count=%d p50=%.1fus p99=%.1fus max=%.1fus%n", phase,
+                    timings.getCount(), timings.getValueAtPercentile(P50) / NANOS_PER_MICRO,
+                    timings.getValueAtPercentile(P99) / NANOS_PER_MICRO,
+                    timings.getMax() / NANOS_PER_MICRO));
+        }
+        for (Gauge gauge : Gauge.values()) {
+            Histogram samples = GAUGES.get(gauge);
+            report.append(String.format(Locale.ROOT, "%s p50=%d p99=%d max=%d%n", gauge,
+                    samples.getValueAtPercentile(P50), samples.getValueAtPercentile(P99),
+                    samples.getMax()));
+        }
+        for (Counter counter : Counter.values()) {
+            report.append(counter).append('=').append(getCount(counter))
+                    .append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the report to the log, one entry per metric.
+     */
+    public static void dump() {
+        if (!Logger.isEnabled(LogLevel.INFO)) {
+            return;
+        }
+        for (String line : report().split(System.lineSeparator())) {
+            Logger.logInfo("Metrics {}", line);
+        }
+    }
+
+    /**
+     * Writes the report to a file, replacing its contents.
+     * @param file The file to write to.
+     */
+    public static void dump(Path file) {
+        try (PrintWriter writer = new PrintWriter(
+                Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.print(report());
+        } catch (IOException e) {
+            Logger.logError("Could not write metrics to {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package nl.tudelft.bejeweled.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for adding a score to the high scores and writing them.
+ */
+@Name("nl.tudelft.bejeweled.HighScoreWrite")
+@Label("High Score Write")
+@Category({"Bejeweled", "Persistence"})
+@Description("A score added to the high scores, which are written to disk")
+public class HighScoreWriteEvent extends Event {
+
+    @Label("Score")
+    private int score;
+
+    @Label("Entries")
+    private int entries;
+
+    @Label("File Size")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ends the event and commits it to the recording.
+     * @param addedScore The score that was added.
+     * @param entryCount Number of high scores after adding.
+     * @param fileSize Size of the high score file in bytes.
+     */
+    public void commit(int addedScore, int entryCount, long fileSize) {
+        if (shouldCommit()) {
+            score = addedScore;
+            entries = entryCount;
+            bytes = fileSize;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package nl.tudelft.bejeweled.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non negative long values with a fixed relative precision.
+ *
+ * <p>Values are counted in log-linear buckets, in the style of an HDR
+ * histogram: every power of two range is split into {@link #SUB_BUCKETS}
+ * equally wide buckets, so any recorded value is reported with an error of at
+ * most 1 in {@link #SUB_BUCKETS}. Values below <code>2 * SUB_BUCKETS</code>
+ * are counted exactly. Recording is a few shifts and an array increment and
+ * never allocates, so it can be done on every frame. A histogram is not
+ * thread safe.</p>
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** Number of buckets every power of two range is split into. */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private static final double PERCENT = 100.0;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records a value.
+     * @param value The value to record, negative values are counted as 0.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[bucketOf(clamped)]++;
+        count++;
+        sum += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * Determines the bucket counting a value.
+     * @param value A non negative value.
+     * @return Index of the bucket.
+     */
+    static int bucketOf(long value) {
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+        if (shift < 0) {
+            return (int) value;
+        }
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Determines the highest value counted by a bucket.
+     * @param bucket Index of the bucket.
+     * @return The largest value that falls in the bucket.
+     */
+    static long highestValueOf(int bucket) {
+        int shift = bucket / SUB_BUCKETS - 1;
+        if (shift <= 0) {
+            return bucket;
+        }
+        long top = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return (top << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * Finds the value below which a percentage of the recorded values fall.
+     * @param percentile The percentage, between 0 and 100.
+     * @return The value at the percentile, within the precision of the
+     *     histogram and never above the maximum, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(max, highestValueOf(bucket));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Getter method for the number of recorded values.
+     * @return The number of values recorded since the last reset.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter method for the smallest recorded value.
+     * @return The minimum, or 0 if nothing was recorded.
+     */
+    public long getMin() {
+        if (count == 0) {
+            return 0;
+        }
+        return min;
+    }
+
+    /**
+     * Getter method for the largest recorded value.
+     * @return The maximum, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Getter method for the average of the recorded values.
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        if (count == 0) {
+            return 0;
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * Forgets all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+}
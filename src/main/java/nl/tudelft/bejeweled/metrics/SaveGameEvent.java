@@ -0,0 +1,44 @@
+package nl.tudelft.bejeweled.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for saving or resuming a game.
+ */
+@Name("nl.tudelft.bejeweled.SaveGame")
+@Label("Save Game")
+@Category({"Bejeweled", "Persistence"})
+@Description("A game saved to or resumed from disk")
+public class SaveGameEvent extends Event {
+
+    /** Value of the operation field when saving. */
+    public static final String SAVE = "save";
+
+    /** Value of the operation field when resuming. */
+    public static final String RESUME = "resume";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("File Size")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ends the event and commits it to the recording.
+     * @param saveOperation {@link #SAVE} or {@link #RESUME}.
+     * @param fileSize Size of the save file in bytes.
+     */
+    public void commit(String saveOperation, long fileSize) {
+        if (shouldCommit()) {
+            operation = saveOperation;
+            bytes = fileSize;
+            commit();
+        }
+    }
+}
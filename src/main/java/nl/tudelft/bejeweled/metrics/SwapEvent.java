@@ -0,0 +1,55 @@
+package nl.tudelft.bejeweled.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a swap made by the player.
+ * The duration covers handling the swap on the JavaFX thread.
+ */
+@Name("nl.tudelft.bejeweled.Swap")
+@Label("Swap")
+@Category({"Bejeweled", "Board"})
+@Description("Two jewels swapped by the player")
+@StackTrace(false)
+public class SwapEvent extends Event {
+
+    @Label("First Column")
+    private int firstX;
+
+    @Label("First Row")
+    private int firstY;
+
+    @Label("Second Column")
+    private int secondX;
+
+    @Label("Second Row")
+    private int secondY;
+
+    @Label("Hyper Move")
+    @Description("Whether a hyper jewel consumed all jewels of a type")
+    private boolean hyper;
+
+    /**
+     * Ends the event and commits it to the recording.
+     * @param x1 Column of the first jewel.
+     * @param y1 Row of the first jewel.
+     * @param x2 Column of the second jewel.
+     * @param y2 Row of the second jewel.
+     * @param hyperMove Whether the swap was a hyper move.
+     */
+    public void commit(int x1, int y1, int x2, int y2, boolean hyperMove) {
+        if (shouldCommit()) {
+            firstX = x1;
+            firstY = y1;
+            secondX = x2;
+            secondY = y2;
+            hyper = hyperMove;
+            commit();
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package nl.tudelft.bejeweled.sprite;
 
-import java.io.InputStream;
-
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
@@ -19,8 +17,7 @@ public class ExplosiveSprite extends JewelSprite {
 	public ExplosiveSprite(int x, int y) {
 		super(1, x, y);		
         ImageView explosiveImageView = new ImageView();
-        InputStream input = SelectionCursor.class.getResourceAsStream("/explosive.png");
-        Image explosiveImage = new Image(input);
+        Image explosiveImage = ImageCache.getImage(ImageCache.EXPLOSIVE);
         explosiveImageView.setImage(explosiveImage);
         explosiveImageView.setStyle("-fx-background-color:transparent;");
 
@@ -17,7 +17,7 @@ public class HyperSprite extends JewelSprite {
 	public HyperSprite(int x, int y) {
 		super(1, x, y);		
         ImageView explosiveImageView = new ImageView();
-        Image explosiveImage = new Image(SelectionCursor.class.getResourceAsStream("/hyper.png"));
+        Image explosiveImage = ImageCache.getImage(ImageCache.HYPER);
         explosiveImageView.setImage(explosiveImage);
         explosiveImageView.setStyle("-fx-background-color:transparent;");
 
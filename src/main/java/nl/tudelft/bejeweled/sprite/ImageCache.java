@@ -0,0 +1,79 @@
+package nl.tudelft.bejeweled.sprite;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
+import nl.tudelft.bejeweled.board.BoardModel;
+
+/**
+ * Process wide cache of the images used by the sprites.
+ *
+ * <p>Images are decoded once per resource path and shared by all sprites,
+ * so creating a sprite no longer decodes a PNG. {@link #preload()} decodes
+ * all game images up front, before the first board is shown.</p>
+ */
+public final class ImageCache {
+
+    /** Resource path of the explosion image. */
+    public static final String EXPLODE = "/explode.png";
+
+    /** Resource path of the explosive power up image. */
+    public static final String EXPLOSIVE = "/explosive.png";
+
+    /** Resource path of the hyper power up image. */
+    public static final String HYPER = "/hyper.png";
+
+    /** Resource path of the selection cursor image. */
+    public static final String SELECTION = "/selection.png";
+
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    /**
+     * Utility class, not to be instantiated.
+     */
+    private ImageCache() {
+    }
+
+    /**
+     * Returns the image of a resource, decoding it on first use.
+     * @param path Classpath resource path of the image.
+     * @return The shared image.
+     */
+    public static Image getImage(String path) {
+        return IMAGES.computeIfAbsent(path, ImageCache::load);
+    }
+
+    /**
+     * Returns the image of a jewel type.
+     * @param type The jewel type.
+     * @return The shared image.
+     */
+    public static Image getJewelImage(int type) {
+        return getImage("/" + Integer.toString(type) + ".png");
+    }
+
+    /**
+     * Decodes all images used by the game.
+     */
+    public static void preload() {
+        for (int type = 1; type <= BoardModel.NUMBER_OF_JEWEL_TYPES; type++) {
+            getJewelImage(type);
+        }
+        getImage(EXPLODE);
+        getImage(EXPLOSIVE);
+        getImage(HYPER);
+        getImage(SELECTION);
+    }
+
+    /**
+     * Decodes an image from the classpath.
+     * @param path Classpath resource path of the image.
+     * @return The decoded image.
+     */
+    private static Image load(String path) {
+        InputStream input = ImageCache.class.getResourceAsStream(path);
+        return new Image(input);
+    }
+}
@@ -1,14 +1,16 @@
 package nl.tudelft.bejeweled.sprite;
 
+import javafx.animation.Animation;
 import javafx.animation.FadeTransition;
 import javafx.animation.ParallelTransition;
 import javafx.animation.RotateTransition;
 import javafx.animation.ScaleTransition;
+import javafx.event.EventHandler;
 import javafx.scene.Group;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
 import javafx.util.Duration;
-import nl.tudelft.bejeweled.jewel.Jewel;
 
 /**
  * Created by Jeroen on 5-9-2015.
@@ -23,8 +25,14 @@ public class JewelSprite extends Sprite {
 		public static final int FADE_IN_DURATION = 300;
 		public static final double HYPER_ROTATE = 360f;
 		
-	    private final int type;
+	    private int type;
 		private Image jewelImage;
+		/** The animation currently playing on the node, if any. */
+		private Animation animation;
+		/** The click handler registered on the node, if any. */
+		private EventHandler<MouseEvent> clickHandler;
+		/** The pool the sprite was taken from, if any. */
+		JewelSpritePool pool;
 
 	    /**
 	     * Constructor for Jewel class.
@@ -37,8 +45,7 @@ public class JewelSprite extends Sprite {
 	        setxPos(x);
 	        setyPos(y);
 
-	        String imagePath = "/" + Integer.toString(type) + ".png";
-	        jewelImage = new Image(Jewel.class.getResourceAsStream(imagePath));
+	        jewelImage = ImageCache.getJewelImage(type);
 	        ImageView jewelImageView = new ImageView();
 	        jewelImageView.setImage(jewelImage);
 	        jewelImageView.setStyle("-fx-background-color:transparent;");
@@ -46,6 +53,68 @@ public class JewelSprite extends Sprite {
 	        setNode(jewelImageView);
 	    }
 
+	    /**
+	     * Returns the sprite to its initial state with a new type and position,
+	     * so it can be reused for another jewel.
+	     * @param newType The type of the jewel.
+	     * @param x The horizontal position of the jewel on the board grid (in pixels).
+	     * @param y The vertical position of the jewel on the board grid (in pixels).
+	     */
+	    void reset(int newType, int x, int y) {
+	        stopAnimation();
+	        setClickHandler(null);
+	        this.type = newType;
+	        setxPos(x);
+	        setyPos(y);
+	        setvX(0);
+	        setvY(0);
+	        setState(SpriteState.IDLE);
+	        jewelImage = ImageCache.getJewelImage(newType);
+	        ((ImageView) getNode()).setImage(jewelImage);
+	        getNode().setOpacity(1.0);
+	        getNode().setScaleX(1.0);
+	        getNode().setScaleY(1.0);
+	        getNode().setRotate(0);
+	        getNode().setTranslateX(0);
+	        getNode().setTranslateY(0);
+	        getNode().setLayoutX(x);
+	        getNode().setLayoutY(y);
+	    }
+
+	    /**
+	     * Sets the handler for mouse clicks on the node, replacing the previous one.
+	     * @param handler The handler, or null to remove it.
+	     */
+	    public void setClickHandler(EventHandler<MouseEvent> handler) {
+	        if (clickHandler != null) {
+	            getNode().removeEventFilter(MouseEvent.MOUSE_CLICKED, clickHandler);
+	        }
+	        clickHandler = handler;
+	        if (handler != null) {
+	            getNode().addEventFilter(MouseEvent.MOUSE_CLICKED, handler);
+	        }
+	    }
+
+	    /**
+	     * Plays an animation, stopping the one that was playing on the node.
+	     * @param newAnimation The animation to play.
+	     */
+	    private void play(Animation newAnimation) {
+	        stopAnimation();
+	        animation = newAnimation;
+	        newAnimation.play();
+	    }
+
+	    /**
+	     * Stops the animation currently playing on the node.
+	     */
+	    private void stopAnimation() {
+	        if (animation != null) {
+	            animation.stop();
+	            animation = null;
+	        }
+	    }
+
 	    /**
 	     * Updates the Jewel graphics.
 	     */
@@ -61,8 +130,12 @@ public class JewelSprite extends Sprite {
 		        }
 	    	}
 	     	
-	        getNode().setLayoutX(getxPos());
-	        getNode().setLayoutY(getyPos());
+	        if (getNode().getLayoutX() != getxPos()) {
+	            getNode().setLayoutX(getxPos());
+	        }
+	        if (getNode().getLayoutY() != getyPos()) {
+	            getNode().setLayoutY(getyPos());
+	        }
 	    }
 	    
 
@@ -70,23 +143,32 @@ public class JewelSprite extends Sprite {
 	     * Updates the Jewels velocity based on its current position and desired position.
 	     */
 	    private void updateVelocity() {
-	    	//Update x velocity
-	    	if (getNode().getTranslateX() > MAX_SPEED_X) {
-	    		setvX(MAX_SPEED_X);
-	    	} else if (getNode().getTranslateX() < -MAX_SPEED_X) {
-	        		setvX(-MAX_SPEED_X);
-	        } else {
-	        		setvX(getNode().getTranslateX());
-	    	}
+	    	setvX(clamp(getNode().getTranslateX(), MAX_SPEED_X));
+	    	setvY(clamp(getNode().getTranslateY(), MAX_SPEED_Y));
+	    }
 
-	    	//Update x velocity
-	    	if (getNode().getTranslateY() > MAX_SPEED_Y) {
-	    		setvY(MAX_SPEED_Y);
-	    	} else if (getNode().getTranslateY() < -MAX_SPEED_Y) {
-	        		setvY(-MAX_SPEED_Y);
-	    	} else {
-	        		setvY(getNode().getTranslateY());
-	        	}
+	    /**
+	     * Limits the distance covered in one step to the maximum speed.
+	     * @param distance The remaining distance.
+	     * @param maxSpeed The maximum speed.
+	     * @return The distance to cover in the next step.
+	     */
+	    private static double clamp(double distance, double maxSpeed) {
+	    	return Math.max(-maxSpeed, Math.min(maxSpeed, distance));
+	    }
+
+	    /**
+	     * Shows the jewel part of the way to where the next step moves it, by
+	     * offsetting its layout. The next update restores the layout.
+	     * @param alpha The fraction of a step that has passed since the last step.
+	     */
+	    @Override
+	    public void render(double alpha) {
+	    	if (!isMoving()) {
+	    		return;
+	    	}
+	    	getNode().setLayoutX(getxPos() - alpha * clamp(getNode().getTranslateX(), MAX_SPEED_X));
+	    	getNode().setLayoutY(getyPos() - alpha * clamp(getNode().getTranslateY(), MAX_SPEED_Y));
 	    }
 	    
 	    /**
@@ -112,7 +194,7 @@ public class JewelSprite extends Sprite {
 	        ft.setCycleCount(1);
 	        ft.setAutoReverse(false);
 	        ft.setOnFinished(event -> remove(sceneGroup));
-	        ft.play();
+	        play(ft);
 	    }
 
 	    /**
@@ -124,14 +206,9 @@ public class JewelSprite extends Sprite {
 	        setvX(0);
 	        setvY(0);
 
-	        String imagePath = "/explode.png";
-	        jewelImage = new Image(Jewel.class.getResourceAsStream(imagePath));
-	        ImageView jewelImageView = new ImageView();
-	        jewelImageView.setImage(jewelImage);
-	        jewelImageView.setStyle("-fx-background-color:transparent;");
-	        sceneGroup.getChildren().remove(getNode());
-	        sceneGroup.getChildren().add(jewelImageView);
-	        setNode(jewelImageView);
+	        jewelImage = ImageCache.getImage(ImageCache.EXPLODE);
+	        ((ImageView) getNode()).setImage(jewelImage);
+	        getNode().toFront();
 	        
 	        FadeTransition ft = new FadeTransition(Duration.millis(EXPLODE_DURATION), getNode());
 	        ft.setFromValue(1.0);
@@ -139,18 +216,35 @@ public class JewelSprite extends Sprite {
 	        ft.setCycleCount(1);
 	        ft.setAutoReverse(false);
 	        ft.setOnFinished(event -> remove(sceneGroup));
-	        ft.play();
+	        play(ft);
 	    }
 	    
 	    /**
 	     * Simple version of implode, to remove the jewel from the game.
+	     * Plain jewel sprites are returned to the {@link JewelSpritePool} they came from.
 	     * @param sceneGroup Game scene group to remove the Jewel from.
 	     */
 	    public void remove(Group sceneGroup) {
+	        if (getState() == SpriteState.TO_BE_REMOVED) {
+	            return;
+	        }
+	        stopAnimation();
 	        setState(SpriteState.TO_BE_REMOVED);
+	        setClickHandler(null);
 	        if (sceneGroup != null) {
 	            sceneGroup.getChildren().remove(getNode());
 	        }
+	        recycle();
+	    }
+
+	    /**
+	     * Returns the sprite to the pool it was taken from, if any. Only used for
+	     * sprites that are no longer part of a scene.
+	     */
+	    public void recycle() {
+	        if (pool != null && getClass() == JewelSprite.class) {
+	            pool.release(this);
+	        }
 	    }
 	    
 	  /**
@@ -170,7 +264,7 @@ public class JewelSprite extends Sprite {
 	        ft.setOnFinished(event -> {
 	            setState(SpriteState.IDLE);
 	        });
-	        ft.play();
+	        play(ft);
 	    }
 
 	/**
@@ -192,6 +286,6 @@ public class JewelSprite extends Sprite {
 	    
 	        ParallelTransition pt = new ParallelTransition(getNode(), rt, st);
 	        pt.setOnFinished(event -> remove(sceneGroup));
-	        pt.play();
+	        play(pt);
 	}
 	}
@@ -0,0 +1,64 @@
+package nl.tudelft.bejeweled.sprite;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of plain jewel sprites, including their image view nodes.
+ *
+ * <p>Sprites whose removal animation has finished are returned to the pool
+ * they were taken from by {@link JewelSprite#remove(javafx.scene.Group)} and
+ * handed out again, reset to a new type and position, when the board needs a
+ * new jewel. Power up sprites are not pooled. Each {@link SpriteStore} owns a
+ * pool, which is only used from the JavaFX application thread.</p>
+ */
+public final class JewelSpritePool {
+
+    /** Maximum number of idle sprites kept in the pool. */
+    public static final int MAX_SIZE = 128;
+
+    private final Deque<JewelSprite> pool = new ArrayDeque<>();
+
+    /**
+     * Takes a sprite from the pool, or creates one if the pool is empty.
+     * @param type The type of the jewel.
+     * @param x The horizontal position of the jewel on the board grid (in pixels).
+     * @param y The vertical position of the jewel on the board grid (in pixels).
+     * @return A sprite in its initial state, which returns to this pool when removed.
+     */
+    public JewelSprite acquire(int type, int x, int y) {
+        JewelSprite sprite = pool.poll();
+        if (sprite == null) {
+            sprite = new JewelSprite(type, x, y);
+        } else {
+            sprite.reset(type, x, y);
+        }
+        sprite.pool = this;
+        return sprite;
+    }
+
+    /**
+     * Returns a sprite that is no longer in use to the pool.
+     * @param sprite The sprite, which must not be part of a scene or sprite store.
+     */
+    public void release(JewelSprite sprite) {
+        if (pool.size() < MAX_SIZE) {
+            pool.push(sprite);
+        }
+    }
+
+    /**
+     * Getter for the number of idle sprites in the pool.
+     * @return The number of pooled sprites.
+     */
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * Drops all idle sprites, so they can be garbage collected.
+     */
+    public void clear() {
+        pool.clear();
+    }
+}
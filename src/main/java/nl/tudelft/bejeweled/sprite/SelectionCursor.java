@@ -20,11 +20,12 @@ public class SelectionCursor extends Sprite {
 		yPos = y;
 		
         ImageView cursorImageView = new ImageView();
-        Image cursorImage = new Image(SelectionCursor.class.getResourceAsStream("/selection.png"));
+        Image cursorImage = ImageCache.getImage(ImageCache.SELECTION);
         cursorImageView.setImage(cursorImage);
         cursorImageView.setStyle("-fx-background-color:transparent;");
 
         setNode(cursorImageView);
+        update();
 	}
 	
     /**
@@ -28,6 +28,15 @@ public abstract class Sprite {
     /** Status variable, describes the current state of the sprite. */
     private SpriteState state = SpriteState.IDLE;
 
+    /** Slot of the sprite in the {@link SpriteStore}, -1 when not in play. */
+    int storeSlot = -1;
+
+    /** Slot of the sprite among the active sprites of its store, -1 when idle. */
+    int activeSlot = -1;
+
+    /** The store the sprite is in play in, if any. */
+    SpriteStore store;
+
     /**
      * Updates this sprite object's velocity, or animations.
      */
@@ -47,6 +56,8 @@ public abstract class Sprite {
      */
 	public void setNode(Node node) {
 		this.node = node;
+		node.setLayoutX(xPos);
+		node.setLayoutY(yPos);
 	}
 	
     /**
@@ -94,6 +105,35 @@ public abstract class Sprite {
      */
 	public void setState(SpriteState newState) {
 		this.state = newState;
+		if (newState == SpriteState.ANIMATION_ACTIVE) {
+			wake();
+		}
+	}
+
+	/**
+	 * Renders the sprite between the last logic step and the next.
+	 * Sprites without motion of their own have nothing to interpolate.
+	 * @param alpha The fraction of a step that has passed since the last step.
+	 */
+	public void render(double alpha) {
+	}
+
+	/**
+	 * Asks the store to update this sprite on the next frames, until it
+	 * stops moving.
+	 */
+	protected void wake() {
+		if (store != null) {
+			store.activate(this);
+		}
+	}
+
+	/**
+	 * Tests whether the sprite still has a distance to travel to its position.
+	 * @return true if the node is translated away from its layout position
+	 */
+	public boolean isMoving() {
+		return node != null && (node.getTranslateX() != 0 || node.getTranslateY() != 0);
 	}
 	
 	 /**
@@ -138,6 +178,7 @@ public abstract class Sprite {
     	this.getNode().setTranslateY(this.getyPos() - y);
     	this.setxPos(x);
     	this.setyPos(y);
+    	wake();
     }
     
     /**
@@ -150,6 +191,7 @@ public abstract class Sprite {
     	this.getNode().setTranslateY(-deltaY);
     	this.setxPos(this.getxPos() + deltaX);
     	this.setyPos(this.getyPos() + deltaY);
+    	wake();
     }
     
       
@@ -1,7 +1,6 @@
 package nl.tudelft.bejeweled.sprite;
 
-import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -10,62 +9,236 @@ import java.util.Set;
 /**
  * Created by Jeroen on 4-9-2015.
  * Class that manages all the sprites/actors in the game.
+ *
+ * <p>Each game owns its own store, so several games can run in one JVM
+ * without sharing sprites.</p>
+ *
+ * <p>Sprites are kept in a dense array. Every sprite remembers its slot in
+ * the array, so adding and removing a sprite takes constant time: a removed
+ * sprite's slot is filled with the last sprite of the array. Sprites that
+ * reached {@link SpriteState#TO_BE_REMOVED} are swept out on every
+ * {@link #cleanupSprites()}.</p>
+ *
+ * <p>Next to all sprites in play the store keeps the active sprites: those
+ * still moving towards their position. Sprites wake themselves up when they
+ * start moving, and only active sprites need to be updated each frame.</p>
  */
-public class SpriteStore implements Serializable {
+public class SpriteStore {
 
-    /** All the sprite objects currently in play. */
-    private static final List LIST_ACTORS = new ArrayList<>();
+    /** Initial capacity of the sprite array. */
+    private static final int INITIAL_CAPACITY = 128;
 
-    /** A global single threaded set used to cleanup or remove sprite objects
+    /** All the sprite objects currently in play, in slots 0 to size - 1. */
+    private Sprite[] actors = new Sprite[INITIAL_CAPACITY];
+
+    /** Number of sprites in play. */
+    private int size;
+
+    /** The sprites that need updating, in slots 0 to activeCount - 1. */
+    private Sprite[] active = new Sprite[INITIAL_CAPACITY];
+
+    /** Number of active sprites. */
+    private int activeCount;
+
+    /** A single threaded set used to cleanup or remove sprite objects
      * in play.
      */
-    private static final Set LIST_DEAD_SPRITES = new HashSet<>();
+    private final Set<Sprite> deadSprites = new HashSet<>();
+
+    /** Pool of removed jewel sprites, reused for new jewels of this game. */
+    private final JewelSpritePool pool = new JewelSpritePool();
+
+    /** Read only view of the sprites in play. */
+    private final List<Sprite> view = new AbstractList<Sprite>() {
+        @Override
+        public Sprite get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return actors[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
 
     /**
      * Get the list of all currently active sprites in the game.
-     * @return List of all actors.
+     * @return Read only view of all actors.
+     */
+    public List<Sprite> getAllSprites() {
+        return view;
+    }
+
+    /**
+     * Getter for the number of sprites in play.
+     * @return The number of sprites.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the sprite in a slot.
+     * @param index The slot, between 0 and {@link #size()} - 1.
+     * @return The sprite in the slot.
      */
-    public List getAllSprites() {
-        return LIST_ACTORS;
+    public Sprite get(int index) {
+        return view.get(index);
     }
 
     /**
-     * VarArgs of sprite objects to be added to the game.
+     * Adds a sprite to the game, unless it is already in play.
      * @param sprite Sprite object to add to the list.
      */
     public void addSprite(Sprite sprite) {
-        LIST_ACTORS.add(sprite);
+        if (contains(sprite)) {
+            return;
+        }
+        if (size == actors.length) {
+            actors = Arrays.copyOf(actors, 2 * size);
+        }
+        sprite.storeSlot = size;
+        sprite.store = this;
+        actors[size++] = sprite;
+        if (sprite.isMoving() || sprite.getState() == SpriteState.ANIMATION_ACTIVE) {
+            activate(sprite);
+        }
     }
     
     /**
-     * VarArgs of sprite objects to be added to the game.
+     * Adds a list of sprites to the game.
      * @param sprites List of sprite objects to add to the list.
      */
     public void addSprites(List<JewelSprite> sprites) {
-        LIST_ACTORS.addAll(sprites);
+        for (Sprite sprite : sprites) {
+            addSprite(sprite);
+        }
     }
     
+    /**
+     * Tests whether a sprite is in play.
+     * @param sprite The sprite to look for.
+     * @return true if the sprite is in the store.
+     */
+    public boolean contains(Sprite sprite) {
+        int slot = sprite.storeSlot;
+        return slot >= 0 && slot < size && actors[slot] == sprite;
+    }
 
     /**
      * Remove one single sprite in the store from the game.
      * @param sprite The sprite to be removed.
      */
     public void removeSprite(Sprite sprite) {
-        LIST_ACTORS.remove(sprite);
+        if (!contains(sprite)) {
+            return;
+        }
+        deactivate(sprite);
+        int slot = sprite.storeSlot;
+        Sprite last = actors[--size];
+        actors[slot] = last;
+        last.storeSlot = slot;
+        actors[size] = null;
+        sprite.storeSlot = -1;
+        sprite.store = null;
     }
 
     /**
-     * Removes all the sprites in the store from the game.
+     * Marks a sprite in play as active, so it is updated every frame.
+     * @param sprite The sprite that started moving.
+     */
+    void activate(Sprite sprite) {
+        if (!contains(sprite) || isActive(sprite)) {
+            return;
+        }
+        if (activeCount == active.length) {
+            active = Arrays.copyOf(active, 2 * activeCount);
+        }
+        sprite.activeSlot = activeCount;
+        active[activeCount++] = sprite;
+    }
+
+    /**
+     * Marks a sprite as idle, so it is no longer updated every frame.
+     * @param sprite The sprite that stopped moving.
+     */
+    public void deactivate(Sprite sprite) {
+        if (!isActive(sprite)) {
+            return;
+        }
+        int slot = sprite.activeSlot;
+        Sprite last = active[--activeCount];
+        active[slot] = last;
+        last.activeSlot = slot;
+        active[activeCount] = null;
+        sprite.activeSlot = -1;
+    }
+
+    /**
+     * Tests whether a sprite is active.
+     * @param sprite The sprite to look for.
+     * @return true if the sprite is updated every frame.
+     */
+    public boolean isActive(Sprite sprite) {
+        int slot = sprite.activeSlot;
+        return slot >= 0 && slot < activeCount && active[slot] == sprite;
+    }
+
+    /**
+     * Getter for the number of active sprites.
+     * @return The number of sprites to update this frame.
+     */
+    public int activeCount() {
+        return activeCount;
+    }
+
+    /**
+     * Getter for an active sprite.
+     * @param index The slot, between 0 and {@link #activeCount()} - 1.
+     * @return The active sprite in the slot.
+     */
+    public Sprite getActive(int index) {
+        if (index >= activeCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + activeCount);
+        }
+        return active[index];
+    }
+
+    /**
+     * Getter for the pool of jewel sprites of this game.
+     * @return The sprite pool.
+     */
+    public JewelSpritePool getPool() {
+        return pool;
+    }
+
+    /**
+     * Removes all the sprites in the store from the game and empties the pool.
      */
     public void removeAllSprites() {
-        LIST_ACTORS.clear();
+        for (int i = 0; i < size; i++) {
+            actors[i].storeSlot = -1;
+            actors[i].store = null;
+            actors[i] = null;
+        }
+        size = 0;
+        for (int i = 0; i < activeCount; i++) {
+            active[i].activeSlot = -1;
+            active[i] = null;
+        }
+        activeCount = 0;
+        deadSprites.clear();
+        pool.clear();
     }
 
     /** Returns a set of sprite objects to be removed from the listActors.
      * @return listDeadSprites
      */
-    public Set getSpritesToBeRemoved() {
-        return LIST_DEAD_SPRITES;
+    public Set<Sprite> getSpritesToBeRemoved() {
+        return deadSprites;
     }
 
     /**
@@ -73,26 +246,24 @@ public class SpriteStore implements Serializable {
      * @param sprites varargs of sprite objects.
      */
     public void addSpritesToBeRemoved(Sprite... sprites) {
-        if (sprites.length > 1) {
-            LIST_DEAD_SPRITES.addAll(Arrays.asList((Sprite[]) sprites));
-        } else {
-            LIST_DEAD_SPRITES.add(sprites[0]);
-        }
+        deadSprites.addAll(Arrays.asList(sprites));
     }
 
     /**
-     * Removes sprite objects and nodes from all
-     * temporary collections such as:
-     * listDeadSprites.
-     * The sprite to be removed will also be removed from the
-     * list of all sprite objects called (listActors).
+     * Removes sprite objects from the game: the sprites added with
+     * {@link #addSpritesToBeRemoved(Sprite...)} and all sprites whose state
+     * is {@link SpriteState#TO_BE_REMOVED}.
      */
     public void cleanupSprites() {
+        for (Sprite sprite : deadSprites) {
+            removeSprite(sprite);
+        }
+        deadSprites.clear();
 
-        // remove from actors list
-        LIST_ACTORS.removeAll(LIST_DEAD_SPRITES);
-
-        // reset the clean up sprites
-        LIST_DEAD_SPRITES.clear();
+        for (int i = size - 1; i >= 0; i--) {
+            if (actors[i].getState() == SpriteState.TO_BE_REMOVED) {
+                removeSprite(actors[i]);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package nl.tudelft.bejeweled.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class for the BoardGenerator.
+ */
+public class BoardGeneratorTest {
+	private static final int SIZE = 8;
+	private static final int BOARDS = 500;
+
+	/**
+	 * Test that generated boards are full, free of combos and have a move.
+	 */
+	@Test
+	public void generatedBoardsArePlayable() {
+		ComboDetector detector = new ComboDetector(SIZE, SIZE);
+		for (int seed = 0; seed < BOARDS; seed++) {
+			BoardGenerator generator = new BoardGenerator(SIZE, SIZE, new JewelRandom(seed));
+			BoardModel model = generator.generate();
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					assertFalse(model.isEmpty(x, y));
+				}
+			}
+			assertEquals(0, detector.findCombos(model));
+			assertTrue(new PatternMoveStrategy(model, null).hasValidMove());
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package nl.tudelft.bejeweled.board;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javafx.collections.ObservableList;
+import nl.tudelft.bejeweled.sprite.SpriteStore;
+
+/**
+ * Test class for the headless BoardModel.
+ */
+public class BoardModelTest {
+	private static final int SIZE = 8;
+	private static final int TYPE_A = 3;
+	private static final int TYPE_B = 5;
+
+	private BoardModel model;
+
+	/**
+	 * Creates an empty model to test with.
+	 */
+	@Before
+	public void setUp() {
+		model = new BoardModel(SIZE, SIZE);
+	}
+
+	/**
+	 * Test that a new model is empty.
+	 */
+	@Test
+	public void newModelIsEmpty() {
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				assertTrue(model.isEmpty(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Test setting and reading types and power ups.
+	 */
+	@Test
+	public void setAndGet() {
+		model.set(2, 1, TYPE_A, BoardModel.EXPLOSIVE);
+		assertEquals(TYPE_A, model.getType(2, 1));
+		assertTrue(model.isExplosive(2, 1));
+		assertFalse(model.isHyper(2, 1));
+		model.clear(2, 1);
+		assertTrue(model.isEmpty(2, 1));
+	}
+
+	/**
+	 * Test that swapping exchanges both type and power ups.
+	 */
+	@Test
+	public void swapCells() {
+		model.set(0, 0, TYPE_A, BoardModel.HYPER);
+		model.set(0, 1, TYPE_B, 0);
+		model.swap(0, 0, 0, 1);
+		assertEquals(TYPE_B, model.getType(0, 0));
+		assertEquals(TYPE_A, model.getType(0, 1));
+		assertTrue(model.isHyper(0, 1));
+		assertFalse(model.isHyper(0, 0));
+	}
+
+	/**
+	 * Test that moving a jewel leaves the source empty.
+	 */
+	@Test
+	public void moveCell() {
+		model.set(1, 1, TYPE_A, 0);
+		model.move(1, 1, 1, SIZE - 1);
+		assertTrue(model.isEmpty(1, 1));
+		assertEquals(TYPE_A, model.getType(1, SIZE - 1));
+	}
+
+	/**
+	 * Test that a board generated from file is mirrored in its model.
+	 */
+	@Test
+	public void boardMirrorsModel() {
+		javafx.scene.Group mockGroup = mock(javafx.scene.Group.class);
+		when(mockGroup.getChildren()).thenReturn(mock(ObservableList.class));
+		BoardFactory factory = new BoardFactory(mock(SpriteStore.class));
+		Board board = factory.fromTextGenerateBoard("/boards/RandomNoCombos.txt", mockGroup);
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				assertEquals(board.getGrid()[x][y].getType(), board.getModel().getType(x, y));
+			}
+		}
+		assertArrayEquals(board.convertGrid(), BoardModel.fromTypes(board.convertGrid()).toTypes());
+	}
+}
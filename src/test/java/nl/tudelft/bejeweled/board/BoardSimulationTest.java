@@ -0,0 +1,93 @@
+package nl.tudelft.bejeweled.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the BoardSimulation.
+ */
+public class BoardSimulationTest {
+	private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+	private List<Runnable> tasks;
+	private List<Integer> applied;
+	private BoardSimulation simulation;
+
+	/**
+	 * Creates a simulation that runs its tasks when the test says so.
+	 */
+	@Before
+	public void setUp() {
+		tasks = new ArrayList<>();
+		applied = new ArrayList<>();
+		simulation = new BoardSimulation(tasks::add);
+	}
+
+	/**
+	 * Test that results are only applied when drained, in order.
+	 */
+	@Test
+	public void resultsAppliedOnDrain() {
+		simulation.submit(() -> 1, applied::add);
+		simulation.submit(() -> 2, applied::add);
+		assertTrue(simulation.isBusy());
+		tasks.forEach(Runnable::run);
+		assertTrue(applied.isEmpty());
+		simulation.drain();
+		assertEquals(2, applied.size());
+		assertEquals(Integer.valueOf(1), applied.get(0));
+		assertFalse(simulation.isBusy());
+	}
+
+	/**
+	 * Test that the simulation stays busy while a task has not finished.
+	 */
+	@Test
+	public void busyUntilFinished() {
+		simulation.submit(() -> 1, applied::add);
+		simulation.drain();
+		assertTrue(simulation.isBusy());
+		tasks.get(0).run();
+		simulation.drain();
+		assertFalse(simulation.isBusy());
+	}
+
+	/**
+	 * Test that a failing task does not keep the simulation busy.
+	 */
+	@Test
+	public void failedTaskIsDropped() {
+		simulation.<Integer>submit(() -> {
+			throw new IllegalStateException("test");
+		}, applied::add);
+		tasks.get(0).run();
+		simulation.drain();
+		assertFalse(simulation.isBusy());
+		assertTrue(applied.isEmpty());
+	}
+
+	/**
+	 * Test that the shared worker runs tasks off the calling thread.
+	 */
+	@Test
+	public void sharedWorker() {
+		BoardSimulation shared = new BoardSimulation();
+		List<Thread> threads = new ArrayList<>();
+		shared.submit(Thread::currentThread, threads::add);
+		long deadline = System.nanoTime() + TIMEOUT;
+		while (shared.isBusy() && System.nanoTime() < deadline) {
+			shared.drain();
+			Thread.yield();
+		}
+		assertEquals(1, threads.size());
+		assertFalse(threads.get(0) == Thread.currentThread());
+	}
+}
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.Before;
@@ -73,4 +75,17 @@ public class BoardTest {
 		assertNotNull(selectionBoard.getSelectionCursor());
 	}
 	
+	/**
+	 * Test that a settled board is only examined once until it changes.
+	 */
+	@Test
+	public void settledBoardSkipsUpdates() {
+		Board board = boardFactory.fromTextGenerateBoard("/boards/NoMoves.txt", mockGroup);
+		BoardObserver observer = mock(BoardObserver.class);
+		board.addObserver(observer);
+		board.update();
+		board.update();
+		verify(observer, times(1)).boardOutOfMoves();
+	}
+	
 }
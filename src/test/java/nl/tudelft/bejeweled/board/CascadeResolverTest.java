@@ -0,0 +1,117 @@
+package nl.tudelft.bejeweled.board;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the CascadeResolver.
+ */
+public class CascadeResolverTest {
+	private static final int SIZE = 8;
+	private static final int ROW = 4;
+	private static final int LINE_LENGTH = 4;
+	private static final int BLAST_SIZE = 6;
+	private static final int BOARDS = 100;
+	private static final long SEED = 7L;
+
+	private BoardModel model;
+	private CascadeResolver resolver;
+
+	/**
+	 * Creates a board without moves with a line of four on it.
+	 */
+	@Before
+	public void setUp() {
+		model = new BoardModel(SIZE, SIZE);
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				model.set(x, y, (x + 2 * y) % BoardModel.NUMBER_OF_JEWEL_TYPES + 1, 0);
+			}
+		}
+		resolver = new CascadeResolver(SIZE, SIZE, new Random(SEED));
+	}
+
+	/**
+	 * Places a horizontal line of four jewels of type 1 on the board.
+	 */
+	private void placeLine() {
+		for (int x = 0; x < LINE_LENGTH; x++) {
+			model.set(x, ROW, 1, 0);
+		}
+	}
+
+	/**
+	 * Test that a line of four is removed, spawns an explosive jewel and
+	 * leaves the input untouched.
+	 */
+	@Test
+	public void lineOfFourSpawnsExplosive() {
+		placeLine();
+		int[][] before = model.toTypes();
+		List<CascadeStep> steps = resolver.resolve(model);
+		assertFalse(steps.isEmpty());
+		CascadeStep first = steps.get(0);
+		assertEquals(LINE_LENGTH, first.getRemovedCount());
+		assertEquals(model.index(0, ROW), first.getSpawnCell());
+		assertEquals(1, first.getSpawnType());
+		assertEquals(BoardModel.EXPLOSIVE, first.getSpawnPowerUps());
+		assertEquals(0, first.getBlast());
+		assertArrayEquals(before, model.toTypes());
+	}
+
+	/**
+	 * Test that an explosive jewel in a combo clears its surroundings.
+	 */
+	@Test
+	public void explosiveClearsSurroundings() {
+		placeLine();
+		model.set(1, ROW, 1, BoardModel.EXPLOSIVE);
+		CascadeStep first = resolver.resolve(model).get(0);
+		assertEquals(BLAST_SIZE, Long.bitCount(first.getBlast()));
+		assertEquals(0, first.getBlast() & first.getRemoved());
+	}
+
+	/**
+	 * Test that a swap without combos has no cascade.
+	 */
+	@Test
+	public void invalidSwapHasNoSteps() {
+		assertTrue(resolver.resolveSwap(model, 0, 0, 1, 0).isEmpty());
+	}
+
+	/**
+	 * Test that replaying the steps on random boards settles them into full
+	 * boards without combos.
+	 */
+	@Test
+	public void replaySettlesBoard() {
+		Random random = new Random(SEED);
+		ComboDetector detector = new ComboDetector(SIZE, SIZE);
+		for (int board = 0; board < BOARDS; board++) {
+			BoardModel start = new BoardModel(SIZE, SIZE);
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					start.set(x, y, random.nextInt(BoardModel.NUMBER_OF_JEWEL_TYPES) + 1, 0);
+				}
+			}
+			List<CascadeStep> steps = resolver.resolve(start);
+			for (CascadeStep step : steps) {
+				step.applyTo(start);
+			}
+			assertEquals(0, detector.findCombos(start));
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					assertFalse(start.isEmpty(x, y));
+				}
+			}
+		}
+	}
+}
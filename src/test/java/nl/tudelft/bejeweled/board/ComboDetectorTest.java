@@ -0,0 +1,84 @@
+package nl.tudelft.bejeweled.board;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the bitboard based ComboDetector.
+ */
+public class ComboDetectorTest {
+	private static final int SIZE = 8;
+	private static final int TYPE = 4;
+	private static final int OTHER_TYPE = 6;
+
+	private BoardModel model;
+	private ComboDetector detector;
+
+	/**
+	 * Creates an empty board and a detector.
+	 */
+	@Before
+	public void setUp() {
+		model = new BoardModel(SIZE, SIZE);
+		detector = new ComboDetector(SIZE, SIZE);
+	}
+
+	/**
+	 * Test that an empty board has no combos.
+	 */
+	@Test
+	public void emptyBoard() {
+		assertEquals(0, detector.findCombos(model));
+	}
+
+	/**
+	 * Test a vertical run of three at the bottom of a column.
+	 */
+	@Test
+	public void verticalRun() {
+		model.set(2, SIZE - 3, TYPE, 0);
+		model.set(2, SIZE - 2, TYPE, 0);
+		model.set(2, SIZE - 1, TYPE, 0);
+		assertEquals(3, Long.bitCount(detector.findCombos(model)));
+	}
+
+	/**
+	 * Test that a run does not wrap from the bottom of one column to the next.
+	 */
+	@Test
+	public void noWrapBetweenColumns() {
+		model.set(2, SIZE - 2, TYPE, 0);
+		model.set(2, SIZE - 1, TYPE, 0);
+		model.set(3, 0, TYPE, 0);
+		assertEquals(0, detector.findCombos(model));
+	}
+
+	/**
+	 * Test a horizontal run of four at the right edge.
+	 */
+	@Test
+	public void horizontalRun() {
+		for (int x = SIZE - 4; x < SIZE; x++) {
+			model.set(x, 0, TYPE, 0);
+		}
+		assertEquals(4, Long.bitCount(detector.findCombos(model)));
+	}
+
+	/**
+	 * Test that cells shared by a horizontal and a vertical run count once,
+	 * and that different types do not form a run together.
+	 */
+	@Test
+	public void crossingRuns() {
+		model.set(1, 3, TYPE, 0);
+		model.set(2, 3, TYPE, 0);
+		model.set(3, 3, TYPE, 0);
+		model.set(3, 4, TYPE, 0);
+		model.set(3, 5, TYPE, 0);
+		model.set(4, 3, OTHER_TYPE, 0);
+		model.set(5, 3, OTHER_TYPE, 0);
+		assertEquals(5, Long.bitCount(detector.findCombos(model)));
+	}
+}
@@ -0,0 +1,90 @@
+package nl.tudelft.bejeweled.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+/**
+ * Test class for the JewelRandom source.
+ */
+public class JewelRandomTest {
+	private static final long SEED = 1234L;
+	private static final int DRAWS = 1000;
+
+	/**
+	 * Test that equal seeds give equal sequences.
+	 */
+	@Test
+	public void sameSeedSameSequence() {
+		JewelRandom first = new JewelRandom(SEED);
+		JewelRandom second = new JewelRandom(SEED);
+		for (int i = 0; i < DRAWS; i++) {
+			assertEquals(first.nextType(), second.nextType());
+		}
+		assertEquals(SEED, first.getSeed());
+	}
+
+	/**
+	 * Test that drawn types are valid jewel types.
+	 */
+	@Test
+	public void typesInRange() {
+		JewelRandom random = new JewelRandom(SEED);
+		for (int i = 0; i < DRAWS; i++) {
+			int type = random.nextType();
+			assertTrue(type >= 1 && type <= BoardModel.NUMBER_OF_JEWEL_TYPES);
+		}
+	}
+
+	/**
+	 * Test that a split stream differs from its parent.
+	 */
+	@Test
+	public void splitIsIndependent() {
+		JewelRandom parent = new JewelRandom(SEED);
+		JewelRandom child = parent.split();
+		assertNotEquals(parent.nextLong(), child.nextLong());
+	}
+
+	/**
+	 * Test that a source restored from its state continues its sequence.
+	 */
+	@Test
+	public void restoredContinuesSequence() {
+		JewelRandom random = new JewelRandom(SEED);
+		random.nextLong();
+		JewelRandom copy = new JewelRandom(random.getSeed(), random.getState());
+		for (int i = 0; i < DRAWS; i++) {
+			assertEquals(random.nextType(), copy.nextType());
+		}
+		assertEquals(SEED, copy.getSeed());
+	}
+
+	/**
+	 * Test that a serialized source continues its sequence.
+	 * @throws IOException if serialization fails.
+	 * @throws ClassNotFoundException if the class cannot be found.
+	 */
+	@Test
+	public void serializedContinuesSequence() throws IOException, ClassNotFoundException {
+		JewelRandom random = new JewelRandom(SEED);
+		random.nextLong();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream output = new ObjectOutputStream(bytes);
+		output.writeObject(random);
+		output.close();
+		ObjectInputStream input = new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray()));
+		JewelRandom copy = (JewelRandom) input.readObject();
+		assertEquals(random.nextLong(), copy.nextLong());
+		assertEquals(SEED, copy.getSeed());
+	}
+}
@@ -0,0 +1,59 @@
+package nl.tudelft.bejeweled.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test class for the incremental MoveIndex.
+ */
+public class MoveIndexTest {
+	private static final int SIZE = 8;
+	private static final int STEPS = 2000;
+	private static final int MAX_WRITES = 5;
+	private static final long SEED = 42L;
+
+	/**
+	 * Test that the index matches a full enumeration after every batch of
+	 * random writes, including emptied cells and hyper jewels.
+	 */
+	@Test
+	public void matchesFullEnumeration() {
+		Random random = new Random(SEED);
+		BoardModel model = new BoardModel(SIZE, SIZE);
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				model.set(x, y, random.nextInt(BoardModel.NUMBER_OF_JEWEL_TYPES) + 1, 0);
+			}
+		}
+		PatternMoveStrategy strategy = new PatternMoveStrategy(model, null);
+		MoveIndex index = new MoveIndex(model, strategy);
+		for (int step = 0; step < STEPS; step++) {
+			int writes = random.nextInt(MAX_WRITES) + 1;
+			for (int i = 0; i < writes; i++) {
+				int flags = 0;
+				if (random.nextInt(SIZE * SIZE) == 0) {
+					flags = BoardModel.HYPER;
+				}
+				model.set(random.nextInt(SIZE), random.nextInt(SIZE),
+						random.nextInt(BoardModel.NUMBER_OF_JEWEL_TYPES + 1), flags);
+			}
+			index.update();
+			assertEquals(strategy.findAllMoves(), index.getMoveCount());
+		}
+	}
+
+	/**
+	 * Test that an index on an empty board has no moves.
+	 */
+	@Test
+	public void emptyBoardHasNoMoves() {
+		BoardModel model = new BoardModel(SIZE, SIZE);
+		MoveIndex index = new MoveIndex(model, new PatternMoveStrategy(model, null));
+		assertFalse(index.hasValidMove());
+		assertEquals(0, index.getMoveCount());
+	}
+}
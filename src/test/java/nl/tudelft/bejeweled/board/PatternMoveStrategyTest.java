@@ -0,0 +1,160 @@
+package nl.tudelft.bejeweled.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the PatternMoveStrategy.
+ */
+public class PatternMoveStrategyTest {
+	private static final int SIZE = 8;
+	private static final int BOARDS = 200;
+	private static final long SEED = 25L;
+
+	private ComboDetector detector;
+
+	/**
+	 * Creates the combo detector used as reference.
+	 */
+	@Before
+	public void setUp() {
+		detector = new ComboDetector(SIZE, SIZE);
+	}
+
+	/**
+	 * Counts legal moves by trying every swap on a copy of the model.
+	 * @param model The board to search.
+	 * @return The number of swaps that produce a combo.
+	 */
+	private int countBySwapping(BoardModel model) {
+		int count = 0;
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (x < SIZE - 1 && formsCombo(model, x, y, x + 1, y)) {
+					count++;
+				}
+				if (y < SIZE - 1 && formsCombo(model, x, y, x, y + 1)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Checks whether a swap produces a combo.
+	 * @param model The board.
+	 * @param x1 Column of the first cell.
+	 * @param y1 Row of the first cell.
+	 * @param x2 Column of the second cell.
+	 * @param y2 Row of the second cell.
+	 * @return true if the swapped board has a combo.
+	 */
+	private boolean formsCombo(BoardModel model, int x1, int y1, int x2, int y2) {
+		BoardModel copy = new BoardModel(model);
+		copy.swap(x1, y1, x2, y2);
+		return detector.findCombos(copy) != 0;
+	}
+
+	/**
+	 * Test that the enumerated moves match exhaustive swapping on random boards
+	 * without combos.
+	 */
+	@Test
+	public void matchesExhaustiveSearch() {
+		Random random = new Random(SEED);
+		int boards = 0;
+		while (boards < BOARDS) {
+			BoardModel model = new BoardModel(SIZE, SIZE);
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					model.set(x, y, random.nextInt(BoardModel.NUMBER_OF_JEWEL_TYPES) + 1, 0);
+				}
+			}
+			if (detector.findCombos(model) == 0) {
+				PatternMoveStrategy strategy = new PatternMoveStrategy(model, null);
+				assertEquals(countBySwapping(model), strategy.findAllMoves());
+				boards++;
+			}
+		}
+	}
+
+	/**
+	 * Fills a model with a pattern that has no combos and no moves.
+	 * @return The filled model.
+	 */
+	private BoardModel stuckBoard() {
+		BoardModel model = new BoardModel(SIZE, SIZE);
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				model.set(x, y, (x + 2 * y) % BoardModel.NUMBER_OF_JEWEL_TYPES + 1, 0);
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * Test that every enumerated move is a valid swap and the expected move is found.
+	 */
+	@Test
+	public void enumeratedMovesAreValid() {
+		BoardModel model = stuckBoard();
+		int type = model.getType(0, 0);
+		model.set(0, 1, type, 0);
+		model.set(1, 2, type, 0);
+		PatternMoveStrategy strategy = new PatternMoveStrategy(model, null);
+		int count = strategy.findAllMoves();
+		boolean found = false;
+		for (int i = 0; i < count; i++) {
+			int first = PatternMoveStrategy.firstCell(strategy.getMoves()[i]);
+			int second = PatternMoveStrategy.secondCell(strategy.getMoves()[i]);
+			assertTrue(strategy.isValidSwap(first, second));
+			found |= first == model.index(0, 2) && second == model.index(1, 2);
+		}
+		assertTrue(found);
+	}
+
+	/**
+	 * Test that a hyper jewel can always be swapped.
+	 */
+	@Test
+	public void hyperAlwaysValid() {
+		BoardModel model = stuckBoard();
+		PatternMoveStrategy strategy = new PatternMoveStrategy(model, null);
+		assertFalse(strategy.hasValidMove());
+		model.set(2, 2, model.getType(2, 2), BoardModel.HYPER);
+		assertTrue(strategy.hasValidMove());
+	}
+
+	/**
+	 * Test that a snapshot is searched with the tables of the strategy, not its own model.
+	 */
+	@Test
+	public void searchesSnapshot() {
+		BoardModel model = stuckBoard();
+		PatternMoveStrategy strategy = new PatternMoveStrategy(model, null);
+		BoardModel snapshot = new BoardModel(model);
+		int type = snapshot.getType(0, 0);
+		snapshot.set(0, 1, type, 0);
+		snapshot.set(1, 2, type, 0);
+
+		assertEquals(-1, strategy.findFirstMove());
+		assertEquals(new PatternMoveStrategy(snapshot, null).findFirstMove(),
+				strategy.findFirstMove(snapshot));
+		assertTrue(strategy.findFirstMove(snapshot) >= 0);
+	}
+
+	/**
+	 * Test that a snapshot of another size is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsOtherSize() {
+		new PatternMoveStrategy(stuckBoard(), null).findFirstMove(new BoardModel(SIZE, 2));
+	}
+}
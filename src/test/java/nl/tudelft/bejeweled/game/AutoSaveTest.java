@@ -0,0 +1,198 @@
+package nl.tudelft.bejeweled.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import javafx.scene.Group;
+
+import nl.tudelft.bejeweled.sprite.SpriteStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the AutoSave class.
+ */
+public class AutoSaveTest {
+	private static final long INTERVAL = 1000;
+	private static final long SEED = 99L;
+
+	private Path directory;
+	private Path file;
+	private AutoSave autoSave;
+	private Session session;
+
+	/**
+	 * Creates a session and an autosave writing to an empty directory.
+	 * @throws IOException If the directory cannot be created
+	 */
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("saves");
+		file = directory.resolve("autosave.mine");
+		autoSave = new AutoSave(file, INTERVAL);
+		session = new Session(mock(SpriteStore.class), new Group(), SEED);
+		session.getBoard().update();
+	}
+
+	/**
+	 * Removes the save games.
+	 */
+	@After
+	public void tearDown() {
+		autoSave.delete();
+		autoSave.await();
+		File[] files = directory.toFile().listFiles();
+		if (files != null) {
+			for (File saveFile : files) {
+				saveFile.delete();
+			}
+		}
+		directory.toFile().delete();
+	}
+
+	/**
+	 * Test that a snapshot is written once the interval has passed.
+	 * @throws IOException If the snapshot cannot be read
+	 */
+	@Test
+	public void savesAfterInterval() throws IOException {
+		assertTrue(session.getBoard().isAtRest());
+		autoSave.update(session, 0);
+		autoSave.update(session, INTERVAL - 1);
+		autoSave.await();
+		assertFalse(Files.exists(file));
+
+		autoSave.update(session, INTERVAL);
+		autoSave.await();
+		SaveGame saved = SaveGame.read(file);
+		assertArrayEquals(session.getBoard().convertGrid(), saved.getModel().toTypes());
+		assertEquals(SEED, saved.getSeed());
+		assertFalse(session.getBoard().isLocked());
+		assertFalse(Files.exists(directory.resolve("autosave.mine.tmp")));
+	}
+
+	/**
+	 * Test that no snapshot is taken of a locked board.
+	 */
+	@Test
+	public void skipsLockedBoard() {
+		session.lockBoard();
+		autoSave.update(session, 0);
+		autoSave.update(session, INTERVAL);
+		autoSave.await();
+		assertFalse(Files.exists(file));
+	}
+
+	/**
+	 * Test that deleting happens after the snapshot being written.
+	 */
+	@Test
+	public void deleteAfterPendingWrite() {
+		autoSave.update(session, 0);
+		autoSave.update(session, INTERVAL);
+		autoSave.delete();
+		autoSave.await();
+		assertFalse(Files.exists(file));
+	}
+
+	/**
+	 * Test that a snapshot taken right away replaces another save game once it is on disk.
+	 * @throws IOException If the save games cannot be written or read
+	 */
+	@Test
+	public void saveNowReplacesSaveGame() throws IOException {
+		Path saveGame = directory.resolve("save.mine");
+		session.toSaveGame().write(saveGame);
+		autoSave.saveNow(session, 0, saveGame);
+		autoSave.await();
+		assertFalse(Files.exists(saveGame));
+		assertEquals(SEED, SaveGame.read(file).getSeed());
+
+		Files.delete(file);
+		autoSave.update(session, INTERVAL - 1);
+		autoSave.await();
+		assertFalse(Files.exists(file));
+		autoSave.update(session, INTERVAL);
+		autoSave.await();
+		assertTrue(Files.exists(file));
+	}
+
+	/**
+	 * Test that the replaced save game is kept when the snapshot cannot be written.
+	 * @throws IOException If the save game cannot be written
+	 */
+	@Test
+	public void saveNowKeepsSaveGameOnFailure() throws IOException {
+		Path saveGame = directory.resolve("save.mine");
+		session.toSaveGame().write(saveGame);
+		AutoSave broken = new AutoSave(directory.resolve("missing").resolve("autosave.mine"),
+				INTERVAL);
+		broken.saveNow(session, 0, saveGame);
+		broken.await();
+		assertTrue(Files.exists(saveGame));
+	}
+
+	/**
+	 * Test that a game saved by hand is written after the pending snapshot,
+	 * which it then replaces.
+	 * @throws IOException If the save game cannot be read
+	 */
+	@Test
+	public void saveAsReplacesSnapshot() throws IOException {
+		Path saveGame = directory.resolve("save.mine");
+		autoSave.update(session, 0);
+		autoSave.update(session, INTERVAL);
+		autoSave.saveAs(session.getRestingSaveGame(), saveGame);
+		autoSave.await();
+		assertFalse(Files.exists(file));
+		assertEquals(SEED, SaveGame.read(saveGame).getSeed());
+	}
+
+	/**
+	 * Test that the snapshot is kept when the game cannot be saved by hand.
+	 */
+	@Test
+	public void saveAsKeepsSnapshotOnFailure() {
+		autoSave.update(session, 0);
+		autoSave.update(session, INTERVAL);
+		autoSave.saveAs(session.getRestingSaveGame(),
+				directory.resolve("missing").resolve("save.mine"));
+		autoSave.await();
+		assertTrue(Files.exists(file));
+	}
+
+	/**
+	 * Test that the most recent valid save game is chosen.
+	 * @throws IOException If the save games cannot be written
+	 */
+	@Test
+	public void latestValidSnapshot() throws IOException {
+		final int score = 10;
+		Path older = directory.resolve("save.mine");
+		Path newer = directory.resolve("newer.mine");
+		Path damaged = directory.resolve("damaged.mine");
+		SaveGame saveGame = session.toSaveGame();
+		saveGame.write(older);
+		new SaveGame(SEED, 1, score, 1, saveGame.getModel()).write(newer);
+		Files.write(damaged, new byte[saveGame.size()]);
+		Files.setLastModifiedTime(older, FileTime.fromMillis(INTERVAL));
+		Files.setLastModifiedTime(newer, FileTime.fromMillis(2 * INTERVAL));
+		Files.setLastModifiedTime(damaged, FileTime.fromMillis(2 * 2 * INTERVAL));
+
+		assertEquals(score, AutoSave.latest(older, newer, damaged).getScore());
+		assertEquals(0, AutoSave.latest(older, damaged).getScore());
+		assertNull(AutoSave.latest(damaged, directory.resolve("missing.mine")));
+	}
+}
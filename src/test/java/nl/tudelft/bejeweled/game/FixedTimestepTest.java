@@ -0,0 +1,58 @@
+package nl.tudelft.bejeweled.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the FixedTimestep accumulator.
+ */
+public class FixedTimestepTest {
+	private static final long STEP = 1000;
+	private static final int MAX_STEPS = 3;
+	private static final long MAX_FRAME = 10000;
+	private static final double DELTA = 1e-9;
+
+	private FixedTimestep timestep;
+
+	/**
+	 * Creates the timestep and starts its clock.
+	 */
+	@Before
+	public void setUp() {
+		timestep = new FixedTimestep(STEP, MAX_STEPS, MAX_FRAME);
+		assertEquals(0, timestep.advance(0));
+	}
+
+	/**
+	 * Test that time is spent in whole steps and the rest is interpolated.
+	 */
+	@Test
+	public void spendsWholeSteps() {
+		assertEquals(1, timestep.advance(STEP + STEP / 2));
+		assertEquals(0.5, timestep.getAlpha(), DELTA);
+		assertEquals(2, timestep.advance(3 * STEP));
+		assertEquals(0, timestep.getAlpha(), DELTA);
+	}
+
+	/**
+	 * Test that a short frame runs no steps but keeps its time.
+	 */
+	@Test
+	public void shortFrameAccumulates() {
+		assertEquals(0, timestep.advance(STEP / 2));
+		assertEquals(1, timestep.advance(STEP));
+	}
+
+	/**
+	 * Test that a stall runs at most the catch-up limit and drops the backlog.
+	 */
+	@Test
+	public void stallIsCapped() {
+		assertEquals(MAX_STEPS, timestep.advance(MAX_FRAME * MAX_FRAME));
+		assertTrue(timestep.getAlpha() < 1);
+		assertEquals(1, timestep.advance(MAX_FRAME * MAX_FRAME + STEP / 2));
+	}
+}
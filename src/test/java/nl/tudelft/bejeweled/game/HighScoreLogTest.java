@@ -0,0 +1,146 @@
+package nl.tudelft.bejeweled.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Class for testing the HighScoreLog class.
+ */
+public class HighScoreLogTest {
+
+	private static final int SCORE = 1000;
+	private static final long TIME = 1442505686000L;
+	private static final long SEED = -7L;
+
+	private Path directory;
+	private Path file;
+	private HighScoreLog log;
+
+	/**
+	 * Creates a journal in an empty directory.
+	 * @throws IOException If the directory cannot be created
+	 */
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("highscores");
+		file = directory.resolve("highscores.log");
+		log = new HighScoreLog(file);
+	}
+
+	/**
+	 * Removes the journal.
+	 * @throws IOException If the files cannot be deleted
+	 */
+	@After
+	public void tearDown() throws IOException {
+		log.close();
+		Files.deleteIfExists(file);
+		Files.delete(directory);
+	}
+
+	/**
+	 * Tests that appended records are read back in order.
+	 * @throws IOException If the journal cannot be used
+	 */
+	@Test
+	public void testAppendAndRead() throws IOException {
+		assertFalse(log.exists());
+		log.append(new LeaderboardEntry(SCORE, "Jan", TIME, SEED));
+		log.append(new LeaderboardEntry(SCORE + 1, "J\u00e9r\u00f4me", TIME + 1, SEED + 1));
+
+		List<LeaderboardEntry> read = new ArrayList<>();
+		assertEquals(2, log.read(read::add));
+		assertFalse(log.isTruncated());
+		assertEquals(SCORE, read.get(0).getScore());
+		assertEquals("Jan", read.get(0).getName());
+		assertEquals(TIME, read.get(0).getTime());
+		assertEquals(SEED, read.get(0).getSeed());
+		assertEquals("J\u00e9r\u00f4me", read.get(1).getName());
+	}
+
+	/**
+	 * Tests that a record cut off by a crash is skipped.
+	 * @throws IOException If the journal cannot be used
+	 */
+	@Test
+	public void testTruncatedRecord() throws IOException {
+		log.append(new LeaderboardEntry(SCORE, "Jan", TIME, SEED));
+		long valid = Files.size(file);
+		log.append(new LeaderboardEntry(SCORE + 1, "Pim", TIME, SEED));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(Files.size(file) - 1);
+		}
+
+		assertEquals(1, log.read((entry) -> { }));
+		assertTrue(log.isTruncated());
+		assertTrue(Files.size(file) > valid);
+	}
+
+	/**
+	 * Tests that a rewrite keeps only the given entries.
+	 * @throws IOException If the journal cannot be used
+	 */
+	@Test
+	public void testRewrite() throws IOException {
+		for (int i = 0; i < SCORE; i++) {
+			log.append(new LeaderboardEntry(i, "Jan", TIME, SEED));
+		}
+		log.rewrite(Arrays.asList(new LeaderboardEntry(SCORE, "Bastiaan", TIME, SEED)));
+
+		List<LeaderboardEntry> read = new ArrayList<>();
+		assertEquals(1, log.read(read::add));
+		assertEquals("Bastiaan", read.get(0).getName());
+		assertFalse(Files.exists(directory.resolve("highscores.log.tmp")));
+	}
+
+	/**
+	 * Tests that records appended after a rewrite end up in the new journal.
+	 * @throws IOException If the journal cannot be used
+	 */
+	@Test
+	public void testAppendAfterRewrite() throws IOException {
+		log.append(new LeaderboardEntry(SCORE, "Jan", TIME, SEED));
+		log.rewrite(Arrays.asList(new LeaderboardEntry(SCORE, "Bastiaan", TIME, SEED)));
+		log.append(new LeaderboardEntry(SCORE + 1, "Pim", TIME, SEED));
+
+		List<LeaderboardEntry> read = new ArrayList<>();
+		assertEquals(2, log.read(read::add));
+		assertEquals("Bastiaan", read.get(0).getName());
+		assertEquals("Pim", read.get(1).getName());
+	}
+
+	/**
+	 * Tests that highscores kept in the same file share a journal.
+	 */
+	@Test
+	public void testSharedPerFile() {
+		assertSame(HighScoreLog.of(file), HighScoreLog.of(directory.resolve("x/../highscores.log")));
+		assertNotSame(HighScoreLog.of(file), HighScoreLog.of(directory.resolve("other.log")));
+	}
+
+	/**
+	 * Tests that a file that is no journal is rejected.
+	 * @throws IOException If the file cannot be written
+	 */
+	@Test(expected = IOException.class)
+	public void testNoJournal() throws IOException {
+		Files.write(file, "<highScore/>".getBytes("UTF-8"));
+		log.read((entry) -> { });
+	}
+}
@@ -2,6 +2,7 @@ package nl.tudelft.bejeweled.game;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -9,7 +10,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 
 import javax.xml.bind.JAXBException;
 
@@ -27,42 +27,40 @@ public class HighScoreTest {
 	private HighScore highScore;
 	private final int currentScore = 1000;
 	private final int newScore = 1001;
-	private Path highScores = Paths.get("highscores.xml");
 	private Path testHighScores = Paths.get("test_highscores.xml");
-	private Path backupHighScores = Paths.get("highscores.xml.backup");
+	private Path directory;
+	private Path highScores;
+	private Path journal;
 	private final int entries = 5;
 	
 	/**
-	 * Initializes the highScore object.
+	 * Initializes the highScore object, kept in a directory holding a copy of
+	 * test_highscores.xml and no journal.
 	 * @throws JAXBException If something unexpected happens during creation of HighScore class
-	 * @throws IOException If moving the files fails
+	 * @throws IOException If copying the files fails
 	 */
 	@Before
 	public void init() throws JAXBException, IOException {
-		highScore = new HighScore();
-		
-		// backup current highscores.xml
-		if (Files.exists(highScores)) {
-			Files.move(highScores, backupHighScores, StandardCopyOption.REPLACE_EXISTING);
-		}
-		// copy testHighscores.xml to highscores.xml
-		Files.copy(testHighScores, highScores, StandardCopyOption.REPLACE_EXISTING);
+		directory = Files.createTempDirectory("highscores");
+		highScores = directory.resolve("highscores.xml");
+		journal = directory.resolve("highscores.log");
+		Files.copy(testHighScores, highScores);
+		highScore = new HighScore(entries, directory);
 	}
 	
 	/**
-	 * Move back the files.
-	 * @throws IOException If moveing or deleting of fails encounters unexpected behaviour
+	 * Removes the files.
 	 */
 	@After
-	public void close() throws IOException {
-		// backup current highscores.xml
-		if (Files.exists(backupHighScores)) {
-			Files.move(backupHighScores, highScores, StandardCopyOption.REPLACE_EXISTING);
-		}
-		else {
-			Files.delete(highScores);
+	public void close() {
+		HighScore.awaitPendingSaves();
+		File[] files = directory.toFile().listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
 		}
-		
+		directory.toFile().delete();
 	}
 	
 	/**
@@ -74,34 +72,28 @@ public class HighScoreTest {
 		highScore.loadHighScores();
 		
 		assertTrue(highScore.isLoaded());
-		assertTrue(highScore.getHighScores().containsValue("Jan"));
-		assertTrue(highScore.getHighScores().containsKey(currentScore));
+		assertTrue(contains(highScore, currentScore, "Jan"));
 	}
 	
 	/**
 	 * Tests adding of new HighScores.
 	 * @throws JAXBException If anything unexpected happens during unmarshalling in addHighScore
-	 * @throws IOException If anything unexpected happens during copying the test_highscore file
 	 */
 	@Test
-	public void testAddHighScore() throws JAXBException, IOException {
+	public void testAddHighScore() throws JAXBException {
 		highScore.loadHighScores();
 		
 		// add a new highScore
 		highScore.addHighScore(newScore, "Jan");
 		
-		File highScoreFile = new File("highscores.xml");
+		File highScoreFile = highScores.toFile();
 		assertTrue(highScoreFile.exists());
 		assertTrue(highScoreFile.length() > 0);
 		
-		HighScore newHighScore = new HighScore();
+		HighScore newHighScore = new HighScore(entries, directory);
 		newHighScore.loadHighScores();
-		assertTrue(newHighScore.getHighScores().containsValue("Jan"));
-		assertTrue(newHighScore.getHighScores().containsKey(newScore));
-		assertTrue(newHighScore.getHighScores().size() <= entries);
-		
-		// copy testHighscores.xml to highscores.xml
-		Files.copy(testHighScores, highScores, StandardCopyOption.REPLACE_EXISTING);
+		assertTrue(contains(newHighScore, newScore, "Jan"));
+		assertTrue(newHighScore.getLeaderboard().size() <= entries);
 	}
 
 	/**
@@ -117,4 +109,99 @@ public class HighScoreTest {
 		assertEquals(highScore.isHighScore(currentScore), entries);
 		assertEquals(highScore.isHighScore(lowScore), 0);
 	}
+
+	/**
+	 * Tests that saving happens in the background and leaves no temporary file.
+	 * @throws JAXBException If anything unexpected happens during loading or saving
+	 */
+	@Test
+	public void testBackgroundSave() throws JAXBException {
+		highScore.loadHighScores();
+		highScore.addHighScore(newScore, "Jan");
+		HighScore.awaitPendingSaves();
+		
+		assertFalse(Files.exists(directory.resolve("highscores.xml.tmp")));
+		HighScore newHighScore = new HighScore(entries, directory);
+		newHighScore.loadHighScores();
+		assertTrue(contains(newHighScore, newScore, "Jan"));
+	}
+	
+	/**
+	 * Tests that a score equal to one on the leaderboard shares its place.
+	 * @throws JAXBException If anything unexpected happens during loading or saving
+	 */
+	@Test
+	public void testTiedHighScore() throws JAXBException {
+		final int tiedScore = 3000;
+		final int tiedPlace = 3;
+		highScore.loadHighScores();
+		
+		assertEquals(tiedPlace, highScore.isHighScore(tiedScore));
+		highScore.addHighScore(tiedScore, "Jan");
+		HighScore.awaitPendingSaves();
+		
+		HighScore newHighScore = new HighScore(entries, directory);
+		newHighScore.loadHighScores();
+		assertTrue(contains(newHighScore, tiedScore, "Amrit"));
+		assertTrue(contains(newHighScore, tiedScore, "Jan"));
+	}
+	
+	/**
+	 * Tests that scores are appended to the journal and rebuilt from it.
+	 * @throws JAXBException If anything unexpected happens during loading or saving
+	 */
+	@Test
+	public void testJournal() throws JAXBException {
+		final long seed = 42;
+		highScore.loadHighScores();
+		highScore.addHighScore(newScore, "Jan", seed);
+		HighScore.awaitPendingSaves();
+		
+		assertTrue(Files.exists(journal));
+		HighScore newHighScore = new HighScore(entries, directory);
+		newHighScore.loadHighScores();
+		LeaderboardEntry last = newHighScore.getLeaderboard().getEntries().get(entries - 1);
+		assertEquals(newScore, last.getScore());
+		assertEquals(seed, last.getSeed());
+	}
+	
+	/**
+	 * Tests that the journal is compacted once it holds many more scores than the leaderboard.
+	 * @throws JAXBException If anything unexpected happens during loading or saving
+	 * @throws IOException If the size of the journal cannot be read
+	 */
+	@Test
+	public void testCompaction() throws JAXBException, IOException {
+		final int adds = 100;
+		final int maxGrowth = 6;
+		highScore.loadHighScores();
+		HighScore.awaitPendingSaves();
+		long compacted = Files.size(journal);
+		for (int i = 0; i < adds; i++) {
+			highScore.addHighScore(currentScore + i, "Jan");
+		}
+		HighScore.awaitPendingSaves();
+		
+		assertTrue(Files.size(journal) < maxGrowth * compacted);
+		HighScore newHighScore = new HighScore(entries, directory);
+		newHighScore.loadHighScores();
+		assertEquals(currentScore + adds - 1,
+				newHighScore.getLeaderboard().getEntries().get(entries - 1).getScore());
+	}
+	
+	/**
+	 * Checks whether a leaderboard holds an entry.
+	 * @param highScore The loaded highscores
+	 * @param score The score of the entry
+	 * @param name The name of the entry
+	 * @return true if the entry is on the leaderboard
+	 */
+	private static boolean contains(HighScore highScore, int score, String name) {
+		for (LeaderboardEntry entry : highScore.getLeaderboard().getEntries()) {
+			if (entry.getScore() == score && entry.getName().equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
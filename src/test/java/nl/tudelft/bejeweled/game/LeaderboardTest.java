@@ -0,0 +1,104 @@
+package nl.tudelft.bejeweled.game;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Class for testing the Leaderboard class.
+ */
+public class LeaderboardTest {
+
+	private static final int CAPACITY = 3;
+	private static final int LOW = 100;
+	private static final int MIDDLE = 200;
+	private static final int HIGH = 300;
+
+	private Leaderboard leaderboard;
+
+	/**
+	 * Creates an empty leaderboard.
+	 */
+	@Before
+	public void init() {
+		leaderboard = new Leaderboard(CAPACITY);
+	}
+
+	/**
+	 * Tests that every score makes an empty leaderboard.
+	 */
+	@Test
+	public void testRankEmpty() {
+		assertEquals(1, leaderboard.rank(0));
+		assertEquals(0, leaderboard.size());
+	}
+
+	/**
+	 * Tests that entries are kept best score first.
+	 */
+	@Test
+	public void testOrder() {
+		leaderboard.add(new LeaderboardEntry(MIDDLE, "b"));
+		leaderboard.add(new LeaderboardEntry(LOW, "c"));
+		leaderboard.add(new LeaderboardEntry(HIGH, "a"));
+
+		assertEquals("a", leaderboard.getEntries().get(0).getName());
+		assertEquals("b", leaderboard.getEntries().get(1).getName());
+		assertEquals("c", leaderboard.getEntries().get(2).getName());
+	}
+
+	/**
+	 * Tests that tied scores share a rank and keep the order they were added in.
+	 */
+	@Test
+	public void testTies() {
+		assertEquals(1, leaderboard.add(new LeaderboardEntry(HIGH, "a")));
+		assertEquals(1, leaderboard.add(new LeaderboardEntry(HIGH, "b")));
+		assertEquals(CAPACITY, leaderboard.add(new LeaderboardEntry(MIDDLE, "c")));
+
+		assertEquals("a", leaderboard.getEntries().get(0).getName());
+		assertEquals("b", leaderboard.getEntries().get(1).getName());
+		assertEquals(CAPACITY, leaderboard.rank(MIDDLE));
+	}
+
+	/**
+	 * Tests that the lowest scores are dropped when the leaderboard is full.
+	 */
+	@Test
+	public void testCapacity() {
+		leaderboard.add(new LeaderboardEntry(LOW, "c"));
+		leaderboard.add(new LeaderboardEntry(MIDDLE, "b"));
+		leaderboard.add(new LeaderboardEntry(HIGH, "a"));
+
+		assertEquals(0, leaderboard.rank(LOW - 1));
+		assertEquals(0, leaderboard.add(new LeaderboardEntry(LOW - 1, "d")));
+		assertEquals(CAPACITY, leaderboard.add(new LeaderboardEntry(LOW + 1, "d")));
+		assertEquals(CAPACITY, leaderboard.size());
+		assertEquals("d", leaderboard.getEntries().get(CAPACITY - 1).getName());
+	}
+
+	/**
+	 * Tests that entries tied with the last place are all kept.
+	 */
+	@Test
+	public void testTiesOnLastPlace() {
+		leaderboard.add(new LeaderboardEntry(HIGH, "a"));
+		leaderboard.add(new LeaderboardEntry(MIDDLE, "b"));
+		leaderboard.add(new LeaderboardEntry(LOW, "c"));
+		assertEquals(CAPACITY, leaderboard.add(new LeaderboardEntry(LOW, "d")));
+		assertEquals(CAPACITY + 1, leaderboard.size());
+
+		leaderboard.add(new LeaderboardEntry(MIDDLE, "e"));
+		assertEquals(CAPACITY, leaderboard.size());
+		assertEquals("e", leaderboard.getEntries().get(2).getName());
+	}
+
+	/**
+	 * Tests that a leaderboard without places is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoCapacity() {
+		new Leaderboard(0);
+	}
+}
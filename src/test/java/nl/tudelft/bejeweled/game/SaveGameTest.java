@@ -0,0 +1,139 @@
+package nl.tudelft.bejeweled.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import nl.tudelft.bejeweled.board.BoardModel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the SaveGame format.
+ */
+public class SaveGameTest {
+	private static final int SIZE = 8;
+	private static final long SEED = 1234L;
+	private static final long STATE = 5678L;
+	private static final int SCORE = 4200;
+	private static final int LEVEL = 3;
+	private static final int MAX_BYTES = 150;
+
+	private BoardModel model;
+
+	/**
+	 * Fills a board with all types and a few power ups.
+	 */
+	@Before
+	public void setUp() {
+		model = new BoardModel(SIZE, SIZE);
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				model.set(x, y, (x + y) % BoardModel.NUMBER_OF_JEWEL_TYPES + 1, 0);
+			}
+		}
+		model.set(1, 2, model.getType(1, 2), BoardModel.EXPLOSIVE);
+		model.set(SIZE - 1, SIZE - 1, model.getType(SIZE - 1, SIZE - 1), BoardModel.HYPER);
+	}
+
+	/**
+	 * Test that a decoded save game equals the encoded one.
+	 * @throws IOException if decoding fails.
+	 */
+	@Test
+	public void roundTrip() throws IOException {
+		ByteBuffer buffer = new SaveGame(SEED, STATE, SCORE, LEVEL, model).encode();
+		assertTrue(buffer.remaining() < MAX_BYTES);
+
+		SaveGame copy = SaveGame.decode(buffer);
+		assertEquals(SEED, copy.getSeed());
+		assertEquals(STATE, copy.getRandomState());
+		assertEquals(SCORE, copy.getScore());
+		assertEquals(LEVEL, copy.getLevel());
+		assertArrayEquals(model.toTypes(), copy.getModel().toTypes());
+		assertTrue(copy.getModel().isExplosive(1, 2));
+		assertTrue(copy.getModel().isHyper(SIZE - 1, SIZE - 1));
+		assertEquals(0, copy.getModel().getPowerUps(0, 0));
+	}
+
+	/**
+	 * Test that a damaged save game is rejected.
+	 * @throws IOException if decoding fails, as expected.
+	 */
+	@Test(expected = IOException.class)
+	public void damaged() throws IOException {
+		ByteBuffer buffer = new SaveGame(SEED, STATE, SCORE, LEVEL, model).encode();
+		final int scoreOffset = 24;
+		buffer.putInt(scoreOffset, SCORE + 1);
+		SaveGame.decode(buffer);
+	}
+
+	/**
+	 * Test that a save game of another version is rejected.
+	 * @throws IOException if decoding fails, as expected.
+	 */
+	@Test(expected = IOException.class)
+	public void otherVersion() throws IOException {
+		ByteBuffer buffer = new SaveGame(SEED, STATE, SCORE, LEVEL, model).encode();
+		buffer.putInt(Integer.BYTES, SaveGame.VERSION + 1);
+		SaveGame.decode(buffer);
+	}
+
+	/**
+	 * Test that a file of another kind is rejected.
+	 * @throws IOException if decoding fails, as expected.
+	 */
+	@Test(expected = IOException.class)
+	public void notASaveGame() throws IOException {
+		SaveGame.decode(ByteBuffer.wrap(new byte[MAX_BYTES]));
+	}
+
+	/**
+	 * Test that a save game of a board of another size is rejected.
+	 * @throws IOException if decoding fails, as expected.
+	 */
+	@Test(expected = IOException.class)
+	public void otherBoardSize() throws IOException {
+		final int size = 4;
+		BoardModel small = new BoardModel(size, size);
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				small.set(x, y, 1, 0);
+			}
+		}
+		SaveGame.decode(new SaveGame(SEED, STATE, SCORE, LEVEL, small).encode());
+	}
+
+	/**
+	 * Test that a save game with an empty cell is rejected.
+	 * @throws IOException if decoding fails, as expected.
+	 */
+	@Test(expected = IOException.class)
+	public void emptyCell() throws IOException {
+		model.clear(2, 2);
+		SaveGame.decode(new SaveGame(SEED, STATE, SCORE, LEVEL, model).encode());
+	}
+
+	/**
+	 * Test that a save game whose random source cannot continue is rejected.
+	 * @throws IOException if decoding fails, as expected.
+	 */
+	@Test(expected = IOException.class)
+	public void invalidRandomState() throws IOException {
+		SaveGame.decode(new SaveGame(SEED, 0, SCORE, LEVEL, model).encode());
+	}
+
+	/**
+	 * Test the size of a save game of the 8 by 8 board.
+	 */
+	@Test
+	public void encodedSize() {
+		final int bytes = 124;
+		assertEquals(bytes, new SaveGame(SEED, STATE, SCORE, LEVEL, model).size());
+		assertEquals(bytes, new SaveGame(SEED, STATE, SCORE, LEVEL, model).encode().remaining());
+	}
+}
@@ -46,6 +46,7 @@ public class SaveResumeTest extends ApplicationTest {
         
         clickOn("#buttonStart");
         clickOn("#buttonExit");
+        AutoSave.awaitAll();
         
         assertTrue(saveFile.exists());
     }
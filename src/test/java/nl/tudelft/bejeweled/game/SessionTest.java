@@ -1,14 +1,26 @@
 package nl.tudelft.bejeweled.game;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.mock;
 
+import java.io.IOException;
+import java.util.List;
+
 import javafx.scene.Group;
 
+import nl.tudelft.bejeweled.board.Board;
+import nl.tudelft.bejeweled.board.BoardSimulation;
+import nl.tudelft.bejeweled.board.PatternMoveStrategy;
+import nl.tudelft.bejeweled.jewel.Jewel;
+import nl.tudelft.bejeweled.sprite.JewelSprite;
+import nl.tudelft.bejeweled.sprite.SpriteState;
 import nl.tudelft.bejeweled.sprite.SpriteStore;
 
 import org.junit.Before;
@@ -69,4 +81,129 @@ public class SessionTest {
 		assertEquals(expectedLevel, testSession.getLevel());
 	}
 
+	/**
+	 * Test that sessions with the same seed start with the same board.
+	 */
+	@Test
+	public void sameSeedSameBoard() {
+		final long seed = 99L;
+		Session first = new Session(mockSpriteStore, mockGroup, seed);
+		Session second = new Session(mockSpriteStore, new Group(), seed);
+		assertArrayEquals(first.getBoard().convertGrid(), second.getBoard().convertGrid());
+		assertEquals(seed, first.getSeed());
+	}
+
+	/**
+	 * Test that a session restored from a save game continues where it was saved.
+	 * @throws IOException if the save game cannot be decoded.
+	 */
+	@Test
+	public void saveGameContinuesSession() throws IOException {
+		final long seed = 99L;
+		Session saved = new Session(mockSpriteStore, mockGroup, seed);
+		saved.boardJewelRemoved();
+		SaveGame saveGame = SaveGame.decode(saved.toSaveGame().encode());
+		Session resumed = new Session(mockSpriteStore, new Group(), saveGame);
+
+		assertArrayEquals(saved.getBoard().convertGrid(), resumed.getBoard().convertGrid());
+		assertEquals(saved.getScore(), resumed.getScore());
+		assertEquals(saved.getLevel(), resumed.getLevel());
+		assertEquals(seed, resumed.getSeed());
+		assertEquals(saved.toSaveGame().getRandomState(), saveGame.getRandomState());
+	}
+
+	/**
+	 * Finishes the animations of all jewels on the board, as the sprite store
+	 * and the JavaFX transitions would in the running game.
+	 * @param board The board to settle.
+	 */
+	private void finishAnimations(Board board) {
+		for (Jewel[] column : board.getGrid()) {
+			for (Jewel jewel : column) {
+				if (jewel != null) {
+					JewelSprite sprite = jewel.getSprite();
+					while (sprite.getNode().getTranslateX() != 0
+							|| sprite.getNode().getTranslateY() != 0) {
+						sprite.update();
+					}
+					sprite.setState(SpriteState.IDLE);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test that reaching the level target in the middle of a cascade abandons
+	 * the cascade instead of playing it back on the new grid.
+	 */
+	@Test
+	public void levelUpMidCascade() {
+		final long seed = 99L;
+		final int updates = 10;
+		final int target = 500;
+		final int point = 10;
+		// Not a spy: the board reports removed jewels to the session itself
+		final Session testSession = new Session(mockSpriteStore, mockGroup, seed) {
+			@Override
+			public void displayText(String text) {
+			}
+		};
+		Board board = testSession.getBoard();
+		board.setSimulation(new BoardSimulation(Runnable::run));
+		while (testSession.getScore() + testSession.getLevel() * point < target) {
+			testSession.boardJewelRemoved();
+		}
+
+		List<Jewel> move = new PatternMoveStrategy(board.getModel(), board.getGrid())
+				.getValidMovePair();
+		board.addSelection(move.get(0));
+		board.addSelection(move.get(1));
+		testSession.update();
+		assertEquals(2, testSession.getLevel());
+		assertTrue(board.getSelection().isEmpty());
+
+		int score = testSession.getScore();
+		finishAnimations(board);
+		testSession.update();
+		int[][] spawned = board.convertGrid();
+		for (int i = 0; i < updates; i++) {
+			finishAnimations(board);
+			testSession.update();
+		}
+		assertEquals(score, testSession.getScore());
+		assertArrayEquals(spawned, board.convertGrid());
+		for (int x = 0; x < spawned.length; x++) {
+			for (int y = 0; y < spawned[x].length; y++) {
+				assertEquals(spawned[x][y], board.getModel().getType(x, y));
+			}
+		}
+		assertTrue(board.isAtRest());
+	}
+
+	/**
+	 * Test that in the middle of a move the last board at rest is saved,
+	 * which can be resumed, and not the board with jewels missing.
+	 * @throws IOException if the save game cannot be decoded.
+	 */
+	@Test
+	public void restingSaveGameDuringMove() throws IOException {
+		final long seed = 99L;
+		Session session = new Session(mockSpriteStore, mockGroup, seed);
+		Board board = session.getBoard();
+		board.setSimulation(new BoardSimulation(Runnable::run));
+		session.update();
+		int[][] before = board.convertGrid();
+
+		List<Jewel> move = new PatternMoveStrategy(board.getModel(), board.getGrid())
+				.getValidMovePair();
+		board.addSelection(move.get(0));
+		board.addSelection(move.get(1));
+		session.update();
+		assertTrue(session.getScore() > 0);
+		assertFalse(board.isAtRest());
+
+		SaveGame saveGame = SaveGame.decode(session.getRestingSaveGame().encode());
+		assertArrayEquals(before, saveGame.getModel().toTypes());
+		assertEquals(0, saveGame.getScore());
+	}
 }
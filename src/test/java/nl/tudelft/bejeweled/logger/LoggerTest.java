@@ -2,14 +2,18 @@ package nl.tudelft.bejeweled.logger;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 /**
@@ -20,6 +24,31 @@ import org.junit.Test;
 public class LoggerTest {
 
 	private final int logFileLines = 4;
+
+	private Path directory;
+
+	/**
+	 * Creates an empty directory for the log files.
+	 * @throws IOException If the directory cannot be created
+	 */
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("logs");
+	}
+
+	/**
+	 * Removes the log files.
+	 */
+	@After
+	public void tearDown() {
+		File[] files = directory.toFile().listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.toFile().delete();
+	}
 	
 	/**
 	 * Test the info logging function.
@@ -29,7 +58,7 @@ public class LoggerTest {
 	public void testInfoLogging() throws IOException {
 		String message = "Hello World!";
 		
-		Logger.enable();
+		Logger.enable(directory);
 		// Create a logFile
 		Logger.logInfo(message);
 		Path logFilePath = Logger.getLogFilePath();
@@ -55,7 +84,7 @@ public class LoggerTest {
 	public void testErrorLogging() throws IOException {
 		String message = "Hakuna Matata";
 		
-		Logger.enable();
+		Logger.enable(directory);
 		// Create a logFile
 		Logger.logError(message);
 		Path logFilePath = Logger.getLogFilePath();
@@ -81,7 +110,7 @@ public class LoggerTest {
 	public void testWarningLogging() throws IOException {
 		String message = "Hello JavaFX";
 		
-		Logger.enable();
+		Logger.enable(directory);
 		Logger.logWarning(message);
 		Path logFilePath = Logger.getLogFilePath();
 		Logger.disable();
@@ -108,7 +137,7 @@ public class LoggerTest {
 		String message1 = "enabled logging";
 		String message2 = "disabled logging";
 		
-		Logger.enable();
+		Logger.enable(directory);
 		Path logFilePath = Logger.getLogFilePath();
 		Logger.disable();
 		
@@ -124,4 +153,78 @@ public class LoggerTest {
 		
 		Files.delete(logFilePath);
 	}
+
+	/**
+	 * Test that a small blocking buffer writes every record of several threads.
+	 * @throws IOException Exception when the file is not available
+	 * @throws InterruptedException Exception when the test is interrupted
+	 */
+	@Test
+	public void testBlockingOverflow() throws IOException, InterruptedException {
+		final int threads = 4;
+		final int messages = 500;
+		final int capacity = 8;
+		
+		Logger.enable(directory, OverflowPolicy.BLOCK, capacity);
+		Path logFilePath = Logger.getLogFilePath();
+		Thread[] loggers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			loggers[t] = new Thread(() -> {
+				for (int i = 0; i < messages; i++) {
+					Logger.logInfo("message " + i);
+				}
+			});
+			loggers[t].start();
+		}
+		for (Thread logger : loggers) {
+			logger.join();
+		}
+		Logger.disable();
+		
+		List<String> lines = Files.lines(logFilePath).collect(
+	            Collectors.toList());
+		
+		assertEquals(threads * messages + 2, lines.size());
+		
+		Files.delete(logFilePath);
+	}
+
+	/**
+	 * Test that placeholders are replaced from left to right.
+	 */
+	@Test
+	public void testParameterizedFormat() {
+		assertEquals("a 1 and b", Logger.format("a {} and {}", 1, "b", 2));
+		assertEquals("only {}", Logger.format("only {}", null, null, 0));
+		assertEquals("x null", Logger.format("x {}", null, null, 1));
+		assertEquals("no placeholder", Logger.format("no placeholder", 1, 2, 2));
+	}
+	
+	/**
+	 * Test that messages below the level are filtered and suppliers are not called.
+	 * @throws IOException Exception when the file is not available
+	 */
+	@Test
+	public void testLevelFiltering() throws IOException {
+		Logger.setLevel(LogLevel.WARNING);
+		Logger.enable(directory);
+		Path logFilePath = Logger.getLogFilePath();
+		Logger.logInfo(() -> {
+			throw new AssertionError("filtered message was built");
+		});
+		Logger.logDebug("debug {}", 1);
+		Logger.logWarning("warning {} of {}", 1, 2);
+		Logger.disable();
+		Logger.setLevel(LogLevel.INFO);
+		
+		List<String> lines = Files.lines(logFilePath).collect(
+	            Collectors.toList());
+		
+		assertEquals(1, lines.size());
+		assertTrue(lines.get(0).startsWith("WARNING"));
+		assertTrue(lines.get(0).endsWith(": warning 1 of 2"));
+		assertFalse(Logger.isEnabled(LogLevel.ERROR));
+		
+		Files.delete(logFilePath);
+	}
 }
@@ -0,0 +1,79 @@
+package nl.tudelft.bejeweled.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test class for the lock-free RingBuffer.
+ */
+public class RingBufferTest {
+	private static final int CAPACITY = 4;
+	private static final int PRODUCERS = 4;
+	private static final int PER_PRODUCER = 10000;
+
+	/**
+	 * Test that the capacity is rounded up to a power of two.
+	 */
+	@Test
+	public void capacityRounded() {
+		assertEquals(CAPACITY, new RingBuffer<Integer>(CAPACITY - 1).capacity());
+		assertEquals(CAPACITY, new RingBuffer<Integer>(CAPACITY).capacity());
+	}
+
+	/**
+	 * Test that elements come out in order and a full buffer refuses more.
+	 */
+	@Test
+	public void fifoAndFull() {
+		RingBuffer<Integer> buffer = new RingBuffer<>(CAPACITY);
+		for (int i = 0; i < CAPACITY; i++) {
+			assertTrue(buffer.offer(i));
+		}
+		assertFalse(buffer.offer(CAPACITY));
+		assertEquals(Integer.valueOf(0), buffer.poll());
+		assertTrue(buffer.offer(CAPACITY));
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(CAPACITY, buffer.drain(drained::add, Integer.MAX_VALUE));
+		assertEquals(Integer.valueOf(CAPACITY), drained.get(CAPACITY - 1));
+		assertNull(buffer.poll());
+	}
+
+	/**
+	 * Test that nothing is lost or duplicated with concurrent producers.
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	@Test
+	public void concurrentProducers() throws InterruptedException {
+		RingBuffer<Integer> buffer = new RingBuffer<>(CAPACITY);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < PRODUCERS; p++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < PER_PRODUCER; i++) {
+					while (!buffer.offer(1)) {
+						Thread.yield();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		long sum = 0;
+		while (sum < PRODUCERS * PER_PRODUCER) {
+			Integer element = buffer.poll();
+			if (element != null) {
+				sum += element;
+			}
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(buffer.poll());
+	}
+}
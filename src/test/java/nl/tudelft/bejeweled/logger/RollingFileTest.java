@@ -0,0 +1,176 @@
+package nl.tudelft.bejeweled.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the RollingFile used by the Logger.
+ */
+public class RollingFileTest {
+	private static final long HOUR = 3_600_000L;
+	private static final int MAX_ARCHIVES = 2;
+	private static final int SEGMENTS = 5;
+	private static final long TIMEOUT = 5000;
+	private static final long POLL = 10;
+
+	private File directory;
+
+	/**
+	 * Creates an empty directory for the log files.
+	 * @throws IOException If the directory cannot be created
+	 */
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("logs").toFile();
+	}
+
+	/**
+	 * Removes the log files.
+	 */
+	@After
+	public void tearDown() {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	/**
+	 * Test that a full segment is rolled over and compressed.
+	 * @throws IOException If the log files cannot be used
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	@Test
+	public void rollsOverWhenFull() throws IOException, InterruptedException {
+		RollingFile file = new RollingFile(directory, 1, HOUR, MAX_ARCHIVES);
+		Path first = file.getPath();
+		file.println("first");
+		file.println("second");
+		file.close();
+		assertFalse(first.equals(file.getPath()));
+		Path archive = first.resolveSibling(first.getFileName() + ".gz");
+		waitFor(archive.toFile());
+		assertFalse(first.toFile().exists());
+		assertEquals("first" + System.lineSeparator(), unzip(archive));
+		assertTrue(new String(Files.readAllBytes(file.getPath()), StandardCharsets.UTF_8)
+				.startsWith("second"));
+	}
+
+	/**
+	 * Test that only the newest archives are kept.
+	 * @throws IOException If the log files cannot be used
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	@Test
+	public void keepsNewestArchives() throws IOException, InterruptedException {
+		RollingFile file = new RollingFile(directory, HOUR, HOUR, MAX_ARCHIVES);
+		for (int i = 0; i < SEGMENTS; i++) {
+			file.println("segment " + i);
+			file.roll();
+		}
+		file.close();
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (countArchives() != MAX_ARCHIVES && System.currentTimeMillis() < deadline) {
+			Thread.sleep(POLL);
+		}
+		assertEquals(MAX_ARCHIVES, countArchives());
+	}
+
+	/**
+	 * Test that segments the rolling file did not create are not compressed.
+	 * @throws IOException If the log files cannot be used
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	@Test
+	public void doesNotCompressOtherSegments() throws IOException, InterruptedException {
+		File other = new File(directory, "LogFile_09-17-2015_18-01-26.txt");
+		assertTrue(other.createNewFile());
+		RollingFile file = new RollingFile(directory, HOUR, HOUR, MAX_ARCHIVES);
+		Path first = file.getPath();
+		file.println("first");
+		file.roll();
+		file.close();
+		waitFor(first.resolveSibling(first.getFileName() + ".gz").toFile());
+		assertTrue(other.exists());
+		assertEquals(1, countArchives());
+	}
+
+	/**
+	 * Test that log files of earlier runs count towards retention.
+	 * @throws IOException If the log files cannot be used
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	@Test
+	public void prunesEarlierRuns() throws IOException, InterruptedException {
+		String[] earlier = {"LogFile_1.txt", "LogFile_2.txt.gz", "LogFile_3.txt", "LogFile_4.txt"};
+		for (int i = 0; i < earlier.length; i++) {
+			File old = new File(directory, earlier[i]);
+			assertTrue(old.createNewFile());
+			assertTrue(old.setLastModified((i + 1) * HOUR));
+		}
+		RollingFile file = new RollingFile(directory, HOUR, HOUR, MAX_ARCHIVES);
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (new File(directory, earlier[1]).exists() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(POLL);
+		}
+		file.close();
+		assertFalse(new File(directory, earlier[0]).exists());
+		assertFalse(new File(directory, earlier[1]).exists());
+		assertTrue(new File(directory, earlier[2]).exists());
+		assertTrue(new File(directory, earlier[2 + 1]).exists());
+		assertTrue(file.getPath().toFile().exists());
+	}
+
+	/**
+	 * Counts the archives in the directory.
+	 * @return Number of compressed log files
+	 */
+	private int countArchives() {
+		return directory.list((dir, name) -> name.endsWith(".txt.gz")).length;
+	}
+
+	/**
+	 * Waits until a file exists.
+	 * @param file The file to wait for
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	private static void waitFor(File file) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!file.exists() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(POLL);
+		}
+		assertTrue(file.exists());
+	}
+
+	/**
+	 * Reads a gzip archive.
+	 * @param archive The archive
+	 * @return Its uncompressed contents
+	 * @throws IOException If the archive cannot be read
+	 */
+	private static String unzip(Path archive) throws IOException {
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+			StringBuilder text = new StringBuilder();
+			for (int c = in.read(); c >= 0; c = in.read()) {
+				text.append((char) c);
+			}
+			return text.toString();
+		}
+	}
+}
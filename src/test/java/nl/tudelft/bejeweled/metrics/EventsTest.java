@@ -0,0 +1,56 @@
+package nl.tudelft.bejeweled.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test class for the Flight Recorder events of the game.
+ */
+public class EventsTest {
+	private static final int FIRST_X = 3;
+	private static final long FILE_SIZE = 1234;
+
+	/**
+	 * Test that events end up in a recording with their fields.
+	 * @throws IOException If the recording cannot be written.
+	 */
+	@Test
+	public void eventsAreRecorded() throws IOException {
+		Path file = Files.createTempFile("events", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(SwapEvent.class);
+			recording.enable(SaveGameEvent.class);
+			recording.start();
+			SwapEvent swap = new SwapEvent();
+			swap.begin();
+			swap.commit(FIRST_X, 0, FIRST_X, 1, false);
+			SaveGameEvent save = new SaveGameEvent();
+			save.begin();
+			save.commit(SaveGameEvent.SAVE, FILE_SIZE);
+			recording.stop();
+			recording.dump(file);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+		assertEquals(2, events.size());
+		for (RecordedEvent event : events) {
+			if (event.getEventType().getName().equals("nl.tudelft.bejeweled.Swap")) {
+				assertEquals(FIRST_X, event.getInt("firstX"));
+			} else {
+				assertEquals(FILE_SIZE, event.getLong("bytes"));
+			}
+			assertTrue(event.getDuration().toNanos() >= 0);
+		}
+	}
+}
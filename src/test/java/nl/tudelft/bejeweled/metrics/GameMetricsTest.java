@@ -0,0 +1,77 @@
+package nl.tudelft.bejeweled.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import nl.tudelft.bejeweled.metrics.GameMetrics.Counter;
+import nl.tudelft.bejeweled.metrics.GameMetrics.Phase;
+
+/**
+ * Test class for the GameMetrics.
+ */
+public class GameMetricsTest {
+	private static final long NANOS = 2_000_000L;
+
+	/**
+	 * Starts every test with empty metrics.
+	 */
+	@Before
+	public void setUp() {
+		GameMetrics.reset();
+	}
+
+	/**
+	 * Leaves empty metrics for other tests.
+	 */
+	@After
+	public void tearDown() {
+		GameMetrics.reset();
+	}
+
+	/**
+	 * Test that counters add up and are cleared by a reset.
+	 */
+	@Test
+	public void countersAddUp() {
+		GameMetrics.count(Counter.REFILLS, 2);
+		GameMetrics.count(Counter.REFILLS, 1);
+		assertEquals(2 + 1, GameMetrics.getCount(Counter.REFILLS));
+		GameMetrics.reset();
+		assertEquals(0, GameMetrics.getCount(Counter.REFILLS));
+	}
+
+	/**
+	 * Test that the report holds the timings and counters.
+	 */
+	@Test
+	public void reportHoldsMetrics() {
+		GameMetrics.time(Phase.LOGIC, NANOS);
+		GameMetrics.count(Counter.SWAPS, 1);
+		String report = GameMetrics.report();
+		assertTrue(report.contains("LOGIC count=1 p50=2000.0us"));
+		assertTrue(report.contains("SWAPS=1"));
+	}
+
+	/**
+	 * Test that the report can be written to a file.
+	 * @throws IOException If the temporary file cannot be used.
+	 */
+	@Test
+	public void dumpToFile() throws IOException {
+		File file = File.createTempFile("metrics", ".txt");
+		file.deleteOnExit();
+		GameMetrics.count(Counter.CASCADES, 1);
+		GameMetrics.dump(file.toPath());
+		String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		assertEquals(GameMetrics.report(), contents);
+	}
+}
@@ -0,0 +1,99 @@
+package nl.tudelft.bejeweled.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the log-linear Histogram.
+ */
+public class HistogramTest {
+	private static final int VALUES = 1000;
+	private static final double DELTA = 1e-9;
+
+	private Histogram histogram;
+
+	/**
+	 * Creates an empty histogram to test with.
+	 */
+	@Before
+	public void setUp() {
+		histogram = new Histogram();
+	}
+
+	/**
+	 * Test that an empty histogram reports zeros.
+	 */
+	@Test
+	public void emptyHistogram() {
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		assertEquals(0, histogram.getMin());
+		assertEquals(0.0, histogram.getMean(), DELTA);
+	}
+
+	/**
+	 * Test that small values are counted exactly.
+	 */
+	@Test
+	public void smallValuesExact() {
+		for (int i = 1; i <= 2 * Histogram.SUB_BUCKETS; i++) {
+			histogram.record(i);
+		}
+		assertEquals(Histogram.SUB_BUCKETS, histogram.getValueAtPercentile(50));
+		assertEquals(2 * Histogram.SUB_BUCKETS, histogram.getMax());
+		assertEquals(1, histogram.getMin());
+	}
+
+	/**
+	 * Test that percentiles of large values stay within the precision.
+	 */
+	@Test
+	public void percentilesWithinPrecision() {
+		final long scale = 1_000_003L;
+		for (int i = 1; i <= VALUES; i++) {
+			histogram.record(i * scale);
+		}
+		long p50 = histogram.getValueAtPercentile(50);
+		long p99 = histogram.getValueAtPercentile(99);
+		assertWithin(VALUES / 2 * scale, p50);
+		assertWithin(VALUES * 99 / 100 * scale, p99);
+		assertEquals(VALUES * scale, histogram.getValueAtPercentile(100));
+	}
+
+	/**
+	 * Test that every bucket holds the values it reports.
+	 */
+	@Test
+	public void bucketBounds() {
+		final long[] values = {0, 63, 64, 65, 1000, 123_456_789L, Long.MAX_VALUE};
+		for (long value : values) {
+			int bucket = Histogram.bucketOf(value);
+			assertTrue(Histogram.highestValueOf(bucket) >= value);
+			assertEquals(bucket, Histogram.bucketOf(Histogram.highestValueOf(bucket)));
+		}
+	}
+
+	/**
+	 * Test that a reset forgets all values.
+	 */
+	@Test
+	public void reset() {
+		histogram.record(VALUES);
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+	}
+
+	/**
+	 * Asserts that a reported value is at most one sub bucket above the expected one.
+	 * @param expected The exact value.
+	 * @param actual The reported value.
+	 */
+	private static void assertWithin(long expected, long actual) {
+		assertTrue(actual >= expected);
+		assertTrue(actual - expected <= expected / Histogram.SUB_BUCKETS);
+	}
+}
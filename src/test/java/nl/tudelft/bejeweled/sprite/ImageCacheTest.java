@@ -0,0 +1,35 @@
+package nl.tudelft.bejeweled.sprite;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import javafx.scene.image.ImageView;
+
+/**
+ * Test class for the ImageCache.
+ */
+public class ImageCacheTest {
+
+	/**
+	 * Test that an image is decoded once and then shared.
+	 */
+	@Test
+	public void imagesAreShared() {
+		assertNotNull(ImageCache.getImage(ImageCache.SELECTION));
+		assertSame(ImageCache.getImage(ImageCache.SELECTION),
+				ImageCache.getImage(ImageCache.SELECTION));
+	}
+
+	/**
+	 * Test that sprites of the same type share their image.
+	 */
+	@Test
+	public void spritesShareImages() {
+		JewelSprite first = new JewelSprite(2, 0, 0);
+		JewelSprite second = new JewelSprite(2, 1, 1);
+		assertSame(((ImageView) first.getNode()).getImage(),
+				((ImageView) second.getNode()).getImage());
+	}
+}
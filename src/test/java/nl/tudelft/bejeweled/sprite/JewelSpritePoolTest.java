@@ -0,0 +1,104 @@
+package nl.tudelft.bejeweled.sprite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the JewelSpritePool.
+ */
+public class JewelSpritePoolTest {
+	private static final int TYPE = 3;
+	private static final int OTHER_TYPE = 5;
+	private static final int POSITION = 64;
+	private static final double DELTA = 1e-9;
+
+	private JewelSpritePool pool;
+
+	/**
+	 * Creates an empty pool.
+	 */
+	@Before
+	public void setUp() {
+		pool = new JewelSpritePool();
+	}
+
+	/**
+	 * Test that a removed sprite is handed out again, reset to its new state.
+	 */
+	@Test
+	public void removedSpriteIsReused() {
+		JewelSprite sprite = pool.acquire(TYPE, 0, 0);
+		sprite.getNode().setOpacity(0);
+		sprite.getNode().setScaleX(0);
+		sprite.remove(null);
+		JewelSprite reused = pool.acquire(OTHER_TYPE, POSITION, POSITION);
+		assertSame(sprite, reused);
+		assertEquals(OTHER_TYPE, reused.getType());
+		assertEquals(POSITION, reused.getxPos());
+		assertEquals(SpriteState.IDLE, reused.getState());
+		assertEquals(1.0, reused.getNode().getOpacity(), DELTA);
+		assertEquals(1.0, reused.getNode().getScaleX(), DELTA);
+	}
+
+	/**
+	 * Test that removing a sprite twice only returns it to the pool once.
+	 */
+	@Test
+	public void doubleRemoveReleasesOnce() {
+		JewelSprite sprite = pool.acquire(TYPE, 0, 0);
+		int size = pool.size();
+		sprite.remove(null);
+		sprite.remove(null);
+		assertEquals(size + 1, pool.size());
+		pool.acquire(TYPE, 0, 0);
+	}
+
+	/**
+	 * Test that power up sprites are not pooled.
+	 */
+	@Test
+	public void powerUpSpritesAreNotPooled() {
+		ExplosiveSprite sprite = new ExplosiveSprite(0, 0);
+		int size = pool.size();
+		sprite.remove(null);
+		assertEquals(size, pool.size());
+		assertNotSame(sprite, pool.acquire(TYPE, 0, 0));
+	}
+
+	/**
+	 * Test that sprites return to the pool they were taken from.
+	 */
+	@Test
+	public void spriteReturnsToItsOwnPool() {
+		JewelSpritePool other = new JewelSpritePool();
+		JewelSprite sprite = pool.acquire(TYPE, 0, 0);
+		sprite.remove(null);
+		assertEquals(1, pool.size());
+		assertEquals(0, other.size());
+	}
+
+	/**
+	 * Test that sprites created outside a pool are not pooled.
+	 */
+	@Test
+	public void unpooledSpriteIsNotReleased() {
+		new JewelSprite(TYPE, 0, 0).remove(null);
+		assertEquals(0, pool.size());
+	}
+
+	/**
+	 * Test that removing all sprites from a store empties its pool.
+	 */
+	@Test
+	public void removeAllSpritesClearsPool() {
+		SpriteStore store = new SpriteStore();
+		store.getPool().acquire(TYPE, 0, 0).remove(null);
+		assertEquals(1, store.getPool().size());
+		store.removeAllSprites();
+		assertEquals(0, store.getPool().size());
+	}
+}
@@ -1,15 +1,15 @@
 package nl.tudelft.bejeweled.sprite;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import org.junit.Before;
 import org.junit.Test;
 
-import nl.tudelft.bejeweled.jewel.Jewel;
-
 /**
  * Created by Jeroen on 10-9-2015.
  * Test class for the sprites
@@ -31,10 +31,10 @@ public class SpriteStoreTest {
      */
     @Test
     public void addSprite() {
-        Jewel jewel = mock(Jewel.class);
+        JewelSprite jewel = mock(JewelSprite.class);
 
-        spriteStore.addSprite(jewel.getSprite());
-        assertTrue(spriteStore.getAllSprites().contains(jewel.getSprite()));
+        spriteStore.addSprite(jewel);
+        assertTrue(spriteStore.getAllSprites().contains(jewel));
     }
 
     /**
@@ -42,17 +42,17 @@ public class SpriteStoreTest {
      */
     @Test
     public void addMultipleSprites() {
-        Jewel jewel1 = mock(Jewel.class);
-        Jewel jewel2 = mock(Jewel.class);
-        Jewel jewel3 = mock(Jewel.class);
+        JewelSprite jewel1 = mock(JewelSprite.class);
+        JewelSprite jewel2 = mock(JewelSprite.class);
+        JewelSprite jewel3 = mock(JewelSprite.class);
 
-        spriteStore.addSprite(jewel1.getSprite());
-        spriteStore.addSprite(jewel2.getSprite());
-        spriteStore.addSprite(jewel3.getSprite());
+        spriteStore.addSprite(jewel1);
+        spriteStore.addSprite(jewel2);
+        spriteStore.addSprite(jewel3);
         
-        assertTrue(spriteStore.getAllSprites().contains(jewel1.getSprite()));
-        assertTrue(spriteStore.getAllSprites().contains(jewel2.getSprite()));
-        assertTrue(spriteStore.getAllSprites().contains(jewel3.getSprite()));
+        assertTrue(spriteStore.getAllSprites().contains(jewel1));
+        assertTrue(spriteStore.getAllSprites().contains(jewel2));
+        assertTrue(spriteStore.getAllSprites().contains(jewel3));
     }
 
     /**
@@ -60,13 +60,13 @@ public class SpriteStoreTest {
      */
     @Test
     public void removeSprite() {
-        Jewel jewel = mock(Jewel.class);
+        JewelSprite jewel = mock(JewelSprite.class);
 
-        spriteStore.addSprite(jewel.getSprite());
-        assertTrue(spriteStore.getAllSprites().contains(jewel.getSprite()));
+        spriteStore.addSprite(jewel);
+        assertTrue(spriteStore.getAllSprites().contains(jewel));
 
-        spriteStore.removeSprite(jewel.getSprite());
-        assertFalse(spriteStore.getAllSprites().contains(jewel.getSprite()));
+        spriteStore.removeSprite(jewel);
+        assertFalse(spriteStore.getAllSprites().contains(jewel));
     }
 
     /**
@@ -74,17 +74,100 @@ public class SpriteStoreTest {
      */
     @Test
     public void removeAll() {
-    	Jewel jewel1 = mock(Jewel.class);
-        Jewel jewel2 = mock(Jewel.class);
-        Jewel jewel3 = mock(Jewel.class);
+    	JewelSprite jewel1 = mock(JewelSprite.class);
+        JewelSprite jewel2 = mock(JewelSprite.class);
+        JewelSprite jewel3 = mock(JewelSprite.class);
         
-        spriteStore.addSprite(jewel1.getSprite());
-        spriteStore.addSprite(jewel2.getSprite());
-        spriteStore.addSprite(jewel3.getSprite());
+        spriteStore.addSprite(jewel1);
+        spriteStore.addSprite(jewel2);
+        spriteStore.addSprite(jewel3);
         
         spriteStore.removeAllSprites();
-        assertFalse(spriteStore.getAllSprites().contains(jewel1.getSprite()));
-        assertFalse(spriteStore.getAllSprites().contains(jewel2.getSprite()));
-        assertFalse(spriteStore.getAllSprites().contains(jewel3.getSprite()));
+        assertFalse(spriteStore.getAllSprites().contains(jewel1));
+        assertFalse(spriteStore.getAllSprites().contains(jewel2));
+        assertFalse(spriteStore.getAllSprites().contains(jewel3));
+    }
+
+    /**
+     * Test that removing a sprite keeps the other sprites in play.
+     */
+    @Test
+    public void removeKeepsOthers() {
+        JewelSprite jewel1 = mock(JewelSprite.class);
+        JewelSprite jewel2 = mock(JewelSprite.class);
+        JewelSprite jewel3 = mock(JewelSprite.class);
+        spriteStore.addSprite(jewel1);
+        spriteStore.addSprite(jewel2);
+        spriteStore.addSprite(jewel3);
+        spriteStore.removeSprite(jewel1);
+        assertEquals(2, spriteStore.size());
+        assertTrue(spriteStore.getAllSprites().contains(jewel2));
+        assertTrue(spriteStore.getAllSprites().contains(jewel3));
+        spriteStore.removeSprite(jewel3);
+        assertEquals(jewel2, spriteStore.get(0));
+    }
+
+    /**
+     * Test that a sprite is only added once.
+     */
+    @Test
+    public void addTwice() {
+        JewelSprite jewel = mock(JewelSprite.class);
+        spriteStore.addSprite(jewel);
+        spriteStore.addSprite(jewel);
+        assertEquals(1, spriteStore.size());
+    }
+
+    /**
+     * Test that cleanup removes enqueued sprites and sprites marked for removal.
+     */
+    @Test
+    public void cleanupSweepsDeadSprites() {
+        JewelSprite enqueued = mock(JewelSprite.class);
+        JewelSprite finished = mock(JewelSprite.class);
+        JewelSprite alive = mock(JewelSprite.class);
+        when(finished.getState()).thenReturn(SpriteState.TO_BE_REMOVED);
+        when(alive.getState()).thenReturn(SpriteState.IDLE);
+        spriteStore.addSprite(enqueued);
+        spriteStore.addSprite(finished);
+        spriteStore.addSprite(alive);
+        spriteStore.addSpritesToBeRemoved(enqueued);
+        spriteStore.cleanupSprites();
+        assertEquals(1, spriteStore.size());
+        assertEquals(alive, spriteStore.get(0));
+        assertTrue(spriteStore.getSpritesToBeRemoved().isEmpty());
+    }
+
+    /**
+     * Test that separate stores do not share sprites.
+     */
+    @Test
+    public void storesAreIndependent() {
+        JewelSprite jewel = mock(JewelSprite.class);
+        spriteStore.addSprite(jewel);
+        assertEquals(0, new SpriteStore().size());
+    }
+
+    /**
+     * Test that only moving sprites are active.
+     */
+    @Test
+    public void movingSpritesAreActive() {
+        final int distance = 64;
+        JewelSprite sprite = new JewelSprite(1, 0, 0);
+        spriteStore.addSprite(sprite);
+        assertEquals(0, spriteStore.activeCount());
+        sprite.relativeMoveTo(0, distance);
+        assertEquals(1, spriteStore.activeCount());
+        assertEquals(sprite, spriteStore.getActive(0));
+        while (sprite.isMoving()) {
+            sprite.update();
+        }
+        spriteStore.deactivate(sprite);
+        assertEquals(0, spriteStore.activeCount());
+        assertEquals(distance, sprite.getNode().getLayoutY(), 0);
+        spriteStore.removeSprite(sprite);
+        sprite.relativeMoveTo(0, distance);
+        assertEquals(0, spriteStore.activeCount());
     }
 }